@@ -4,6 +4,9 @@
 
 package com.example
 
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.GeneratedCommandRouter
 import com.typesafe.config.ConfigFactory
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
@@ -35,4 +38,23 @@ class EntitiesAndViewsDescriptorSpec extends AnyWordSpec with Matchers {
       kalixService should be("com.example.Setup")
     }
   }
+
+  "generated command routers" should {
+    "exist for entities" in {
+      def commandHandlersOf(routerClassName: String) =
+        Class
+          .forName(routerClassName)
+          .getDeclaredConstructor()
+          .newInstance()
+          .asInstanceOf[GeneratedCommandRouter[_]]
+          .commandHandlers()
+          .asScala
+          .map { case (commandName, parameterTypes) => commandName -> parameterTypes.asScala.toList }
+
+      commandHandlersOf("com.example.SimpleKeyValueEntity_AkkaCommandRouter") shouldBe Map(
+        "Create" -> List(classOf[String]))
+      commandHandlersOf("com.example.HierarchyEsEntity_AkkaCommandRouter") shouldBe empty
+      commandHandlersOf("com.example.Outer_NestedEventSourcedEntity_AkkaCommandRouter") shouldBe empty
+    }
+  }
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.tooling.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+/**
+ * Generates a command router for an entity or workflow: a class with a {@code switch} on the
+ * command name calling the command handler directly, used by the SDK instead of reflection.
+ *
+ * <p>Components with command handlers that the generated code cannot call (generic parameter
+ * types, parameter types not accessible from the component package, checked exceptions, overloaded
+ * handlers) are skipped, for those the SDK falls back to reflection.
+ */
+final class CommandRouterGenerator {
+
+  // These must be kept in sync with GeneratedCommandRouter.java in the akka-javasdk module.
+  private static final String ROUTER_INTERFACE = "akka.javasdk.impl.GeneratedCommandRouter";
+  private static final String ROUTER_CLASS_NAME_SUFFIX = "_AkkaCommandRouter";
+  private static final String BYTES_PAYLOAD = "akka.runtime.sdk.spi.BytesPayload";
+
+  static final String EVENT_SOURCED_ENTITY_EFFECT =
+      "akka.javasdk.eventsourcedentity.EventSourcedEntity.Effect";
+  static final String KEY_VALUE_ENTITY_EFFECT = "akka.javasdk.keyvalueentity.KeyValueEntity.Effect";
+  static final String WORKFLOW_EFFECT = "akka.javasdk.workflow.Workflow.Effect";
+
+  private record CommandHandler(
+      String commandName, String methodName, Optional<VariableElement> parameter) {}
+
+  private final ProcessingEnvironment processingEnv;
+
+  CommandRouterGenerator(ProcessingEnvironment processingEnv) {
+    this.processingEnv = processingEnv;
+  }
+
+  /**
+   * @return the reason the router was not generated, empty if it was generated
+   */
+  Optional<String> generate(TypeElement component, String effectTypeName) throws IOException {
+    var elements = processingEnv.getElementUtils();
+    var types = processingEnv.getTypeUtils();
+
+    // an older SDK version without support for generated routers
+    if (elements.getTypeElement(ROUTER_INTERFACE) == null
+        || elements.getTypeElement(BYTES_PAYLOAD) == null)
+      return Optional.of("[" + ROUTER_INTERFACE + "] not on the classpath");
+    var effectType = elements.getTypeElement(effectTypeName);
+    if (effectType == null) return Optional.of("[" + effectTypeName + "] not on the classpath");
+    if (!component.getTypeParameters().isEmpty())
+      return Optional.of("component class has type parameters");
+
+    var componentPackage = elements.getPackageOf(component);
+    if (!isAccessibleFrom(component, componentPackage))
+      return Optional.of("component class is not accessible from its package");
+
+    var effectErasure = types.erasure(effectType.asType());
+    var handlers = new ArrayList<CommandHandler>();
+    var commandNames = new LinkedHashSet<String>();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(component))) {
+      var modifiers = method.getModifiers();
+      if (!modifiers.contains(Modifier.PUBLIC)
+          || modifiers.contains(Modifier.STATIC)
+          || method.getParameters().size() > 1
+          || !types.isAssignable(types.erasure(method.getReturnType()), effectErasure)) continue;
+
+      var methodName = method.getSimpleName().toString();
+      var commandName = Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1);
+      if (!commandNames.add(commandName))
+        return Optional.of("more than one command handler named [" + commandName + "]");
+      if (!method.getThrownTypes().isEmpty())
+        return Optional.of("command handler [" + methodName + "] declares thrown exceptions");
+
+      if (method.getParameters().isEmpty()) {
+        handlers.add(new CommandHandler(commandName, methodName, Optional.empty()));
+      } else {
+        var parameter = method.getParameters().getFirst();
+        if (classLiteral(parameter.asType(), componentPackage).isEmpty())
+          return Optional.of(
+              "command handler ["
+                  + methodName
+                  + "] parameter type ["
+                  + parameter.asType()
+                  + "] is not supported");
+        handlers.add(new CommandHandler(commandName, methodName, Optional.of(parameter)));
+      }
+    }
+
+    writeRouter(component, componentPackage, handlers);
+    return Optional.empty();
+  }
+
+  /** Class literal for a non-generic parameter type accessible from the component package */
+  private Optional<String> classLiteral(TypeMirror type, PackageElement componentPackage) {
+    if (type.getKind().isPrimitive()) {
+      return Optional.of(type + ".class");
+    } else if (type.getKind() == TypeKind.DECLARED
+        && ((DeclaredType) type).getTypeArguments().isEmpty()) {
+      var typeElement = (TypeElement) ((DeclaredType) type).asElement();
+      if (isAccessibleFrom(typeElement, componentPackage))
+        return Optional.of(typeElement.getQualifiedName() + ".class");
+      else return Optional.empty();
+    } else {
+      // type variables, parameterized types and arrays are left to reflection
+      return Optional.empty();
+    }
+  }
+
+  private boolean isAccessibleFrom(TypeElement typeElement, PackageElement fromPackage) {
+    var elements = processingEnv.getElementUtils();
+    Element current = typeElement;
+    while (current != null && current.getKind() != ElementKind.PACKAGE) {
+      var modifiers = current.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE)) return false;
+      if (!modifiers.contains(Modifier.PUBLIC)
+          && !elements.getPackageOf(current).equals(fromPackage)
+          // members of interfaces are implicitly public
+          && !(current.getEnclosingElement() != null
+              && current.getEnclosingElement().getKind().isInterface())) return false;
+      current = current.getEnclosingElement();
+    }
+    return true;
+  }
+
+  private String routerClassSimpleName(TypeElement component, PackageElement componentPackage) {
+    var binaryName = processingEnv.getElementUtils().getBinaryName(component).toString();
+    var packagePrefix =
+        componentPackage.isUnnamed() ? "" : componentPackage.getQualifiedName() + ".";
+    return binaryName.substring(packagePrefix.length()).replace('$', '_')
+        + ROUTER_CLASS_NAME_SUFFIX;
+  }
+
+  private void writeRouter(
+      TypeElement component, PackageElement componentPackage, List<CommandHandler> handlers)
+      throws IOException {
+    var routerSimpleName = routerClassSimpleName(component, componentPackage);
+    var routerName =
+        componentPackage.isUnnamed()
+            ? routerSimpleName
+            : componentPackage.getQualifiedName() + "." + routerSimpleName;
+    var componentName = component.getQualifiedName().toString();
+
+    var source = new StringBuilder();
+    if (!componentPackage.isUnnamed())
+      source.append("package ").append(componentPackage.getQualifiedName()).append(";\n\n");
+    source
+        .append("@javax.annotation.processing.Generated(\"")
+        .append(ComponentAnnotationProcessor.class.getName())
+        .append("\")\n")
+        .append("@java.lang.SuppressWarnings({\"deprecation\", \"removal\"})\n")
+        .append("public final class ")
+        .append(routerSimpleName)
+        .append(" implements ")
+        .append(ROUTER_INTERFACE)
+        .append("<")
+        .append(componentName)
+        .append("> {\n\n")
+        .append("  private static final java.util.Map<java.lang.String,")
+        .append(" java.util.List<java.lang.Class<?>>> COMMAND_HANDLERS =\n")
+        .append("      java.util.Map.ofEntries(")
+        .append(
+            handlers.stream()
+                .map(
+                    handler ->
+                        "\n          java.util.Map.entry(\""
+                            + handler.commandName()
+                            + "\", java.util.List.<java.lang.Class<?>>of("
+                            + handler
+                                .parameter()
+                                .map(
+                                    parameter ->
+                                        classLiteral(parameter.asType(), componentPackage)
+                                            .orElseThrow())
+                                .orElse("")
+                            + "))")
+                .collect(Collectors.joining(",")))
+        .append(");\n\n")
+        .append("  @java.lang.Override\n")
+        .append("  public java.util.Map<java.lang.String, java.util.List<java.lang.Class<?>>>")
+        .append(" commandHandlers() {\n")
+        .append("    return COMMAND_HANDLERS;\n")
+        .append("  }\n\n")
+        .append("  @java.lang.Override\n")
+        .append("  public java.lang.Object handleCommand(\n")
+        .append("      ")
+        .append(componentName)
+        .append(" component,\n")
+        .append("      java.lang.String commandName,\n")
+        .append("      ")
+        .append(BYTES_PAYLOAD)
+        .append(" command,\n")
+        .append("      ")
+        .append(ROUTER_INTERFACE)
+        .append(".CommandDecoder decoder) {\n")
+        .append("    switch (commandName) {\n");
+
+    for (CommandHandler handler : handlers) {
+      source
+          .append("      case \"")
+          .append(handler.commandName())
+          .append("\":\n")
+          .append("        return component.")
+          .append(handler.methodName())
+          .append("(");
+      handler
+          .parameter()
+          .ifPresent(
+              parameter ->
+                  source
+                      .append("decoder.decode(command, ")
+                      .append(classLiteral(parameter.asType(), componentPackage).orElseThrow())
+                      .append(", \"")
+                      .append(handler.methodName())
+                      .append("\", \"")
+                      .append(parameter.getSimpleName())
+                      .append("\")"));
+      source.append(");\n");
+    }
+
+    source
+        .append("      default:\n")
+        .append("        throw decoder.handlerNotFound(commandName);\n")
+        .append("    }\n")
+        .append("  }\n")
+        .append("}\n");
+
+    var sourceFile = processingEnv.getFiler().createSourceFile(routerName, component);
+    try (Writer out = sourceFile.openWriter()) {
+      out.write(source.toString());
+    }
+  }
+}
@@ -16,6 +16,7 @@ import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,6 +86,14 @@ public class ComponentAnnotationProcessor extends BaseAkkaProcessor {
           AUTONOMOUS_AGENT_KEY,
           SERVICE_SETUP_KEY);
 
+  // Component types for which a command router is generated, with the effect type of their command
+  // handlers
+  private static final Map<String, String> COMMAND_ROUTER_EFFECT_TYPES =
+      Map.of(
+          EVENT_SOURCED_ENTITY_KEY, CommandRouterGenerator.EVENT_SOURCED_ENTITY_EFFECT,
+          VALUE_ENTITY_KEY, CommandRouterGenerator.KEY_VALUE_ENTITY_EFFECT,
+          WORKFLOW_KEY, CommandRouterGenerator.WORKFLOW_EFFECT);
+
   private boolean alreadyRan = false;
 
   @Override
@@ -134,6 +143,7 @@ public class ComponentAnnotationProcessor extends BaseAkkaProcessor {
       alreadyRan = true;
 
       Map<String, List<String>> componentTypeToConcreteComponents = new HashMap<>();
+      Map<TypeElement, String> componentsWithCommandRouter = new LinkedHashMap<>();
       for (TypeElement annotation : annotations) {
         Set<? extends Element> annotatedElements = roundEnv.getElementsAnnotatedWith(annotation);
         var elementsPerComponentType =
@@ -141,6 +151,9 @@ public class ComponentAnnotationProcessor extends BaseAkkaProcessor {
                 .collect(Collectors.groupingBy(element -> componentTypeFor(element, annotation)));
         elementsPerComponentType.forEach(
             (componentType, elements) -> {
+              var effectType = COMMAND_ROUTER_EFFECT_TYPES.get(componentType);
+              if (effectType != null)
+                elements.forEach(element -> componentsWithCommandRouter.put(element, effectType));
               var classNames =
                   new ArrayList<>(
                       elements.stream()
@@ -186,6 +199,7 @@ public class ComponentAnnotationProcessor extends BaseAkkaProcessor {
                       .toList());
           info("Akka SDK annotation processor detected components: " + summary);
           createComponentServiceDescriptor(componentTypeToConcreteComponents);
+          createCommandRouters(componentsWithCommandRouter);
         } else {
           debug("Akka SDK annotation processor found no annotated components");
         }
@@ -357,6 +371,22 @@ public class ComponentAnnotationProcessor extends BaseAkkaProcessor {
     writeConfig(newDescriptorResource, ConfigFactory.parseMap(config));
   }
 
+  private void createCommandRouters(Map<TypeElement, String> componentsWithCommandRouter)
+      throws IOException {
+    var generator = new CommandRouterGenerator(processingEnv);
+    for (var entry : componentsWithCommandRouter.entrySet()) {
+      var component = entry.getKey();
+      var notGeneratedReason = generator.generate(component, entry.getValue());
+      if (notGeneratedReason.isPresent())
+        debug(
+            "No command router generated for "
+                + component.getQualifiedName()
+                + ", reflection will be used: "
+                + notGeneratedReason.get());
+      else debug("Generated command router for " + component.getQualifiedName());
+    }
+  }
+
   private void writeConfig(FileObject descriptorResource, Config config) throws IOException {
     try (Writer out = descriptorResource.openWriter()) {
       var writer = new BufferedWriter(out);
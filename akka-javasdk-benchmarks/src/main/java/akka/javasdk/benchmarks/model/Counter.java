@@ -0,0 +1,20 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmarks.model;
+
+public record Counter(int value) {
+
+  public Counter onValueIncreased(CounterEvent.ValueIncreased evt) {
+    return new Counter(value + evt.value());
+  }
+
+  public Counter onValueDecreased(CounterEvent.ValueDecreased evt) {
+    return new Counter(value - evt.value());
+  }
+
+  public Counter onValueMultiplied(CounterEvent.ValueMultiplied evt) {
+    return new Counter(value * evt.factor());
+  }
+}
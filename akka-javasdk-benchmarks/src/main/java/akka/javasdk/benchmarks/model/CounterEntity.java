@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmarks.model;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.eventsourcedentity.EventSourcedEntity;
+
+@Component(id = "counter")
+public class CounterEntity extends EventSourcedEntity<Counter, CounterEvent> {
+
+  public record Increase(int value) {}
+
+  @Override
+  public Counter emptyState() {
+    return new Counter(0);
+  }
+
+  public Effect<Integer> increase(Increase command) {
+    return effects()
+        .persist(new CounterEvent.ValueIncreased(command.value()))
+        .thenReply(Counter::value);
+  }
+
+  public Effect<Integer> multiply(Integer factor) {
+    return effects().persist(new CounterEvent.ValueMultiplied(factor)).thenReply(Counter::value);
+  }
+
+  public ReadOnlyEffect<Integer> get() {
+    return effects().reply(currentState().value());
+  }
+
+  @Override
+  public Counter applyEvent(CounterEvent event) {
+    return switch (event) {
+      case CounterEvent.ValueIncreased increased -> currentState().onValueIncreased(increased);
+      case CounterEvent.ValueMultiplied multiplied -> currentState().onValueMultiplied(multiplied);
+      case CounterEvent.ValueDecreased decreased -> currentState().onValueDecreased(decreased);
+    };
+  }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmarks.model;
+
+import akka.javasdk.annotations.Migration;
+import akka.javasdk.annotations.TypeName;
+
+public sealed interface CounterEvent {
+
+  @TypeName("value-increased")
+  record ValueIncreased(int value) implements CounterEvent {}
+
+  @TypeName("value-multiplied")
+  record ValueMultiplied(int factor) implements CounterEvent {}
+
+  // stored events in version 0 used "amount" instead of "value", exercises the migration path
+  @TypeName("value-decreased")
+  @Migration(ValueDecreasedMigration.class)
+  record ValueDecreased(int value) implements CounterEvent {}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmarks.model;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+
+@Component(id = "counters-view")
+public class CountersView extends View {
+
+  public record CounterRow(int value, int updates) {}
+
+  @Consume.FromEventSourcedEntity(CounterEntity.class)
+  public static class CountersUpdater extends TableUpdater<CounterRow> {
+
+    @Override
+    public CounterRow emptyRow() {
+      return new CounterRow(0, 0);
+    }
+
+    public Effect<CounterRow> onIncreased(CounterEvent.ValueIncreased increased) {
+      return effects()
+          .updateRow(new CounterRow(rowState().value() + increased.value(), rowState().updates() + 1));
+    }
+
+    public Effect<CounterRow> onDecreased(CounterEvent.ValueDecreased decreased) {
+      return effects()
+          .updateRow(new CounterRow(rowState().value() - decreased.value(), rowState().updates() + 1));
+    }
+
+    public Effect<CounterRow> onMultiplied(CounterEvent.ValueMultiplied multiplied) {
+      return effects()
+          .updateRow(
+              new CounterRow(rowState().value() * multiplied.factor(), rowState().updates() + 1));
+    }
+  }
+
+  @Query("SELECT * FROM counters WHERE value > :value")
+  public QueryEffect<CounterRow> getCounters(int value) {
+    return queryResult();
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.benchmarks.model;
+
+import akka.javasdk.JsonMigration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+public class ValueDecreasedMigration extends JsonMigration {
+
+  @Override
+  public int currentVersion() {
+    return 1;
+  }
+
+  @Override
+  public JsonNode transform(int fromVersion, JsonNode json) {
+    if (fromVersion < 1 && json instanceof ObjectNode objectNode) {
+      objectNode.set("value", objectNode.remove("amount"));
+    }
+    return json;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.concurrent.TimeUnit
+
+import akka.javasdk.benchmarks.model.Counter
+import akka.javasdk.benchmarks.model.CounterEntity
+import akka.javasdk.benchmarks.model.CounterEvent
+import akka.javasdk.impl.eventsourcedentity.ReflectiveEventSourcedEntityRouter
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.BytesPayload
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * The per-command steps shared by all component routers: decoding the command payload for the handler and invoking
+ * the handler on the component instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+class CommandHandlingBenchmark {
+
+  private val serializer = new Serializer()
+  private val descriptor = ComponentDescriptor.descriptorFor(classOf[CounterEntity], serializer)
+
+  private val increaseInvoker: MethodInvoker = descriptor.methodInvokers("Increase")
+  private val getInvoker: MethodInvoker = descriptor.methodInvokers("Get")
+  private val increaseDecoder = increaseInvoker.payloadDecoder.get
+
+  private val command = new CounterEntity.Increase(1)
+  private val commandPayload: BytesPayload = serializer.toBytes(command)
+
+  private val entity = new CounterEntity
+
+  // the router generated by the annotation processor compared to the reflective routing
+  private val generatedRouter =
+    new ReflectiveEventSourcedEntityRouter[Counter, CounterEvent, CounterEntity](
+      entity,
+      descriptor.methodInvokers,
+      descriptor.generatedRouter,
+      serializer)
+  private val reflectiveRouter =
+    new ReflectiveEventSourcedEntityRouter[Counter, CounterEvent, CounterEntity](
+      entity,
+      descriptor.methodInvokers,
+      None,
+      serializer)
+
+  @Benchmark
+  def deserializeComponentClientCommand(): Option[AnyRef] =
+    CommandSerialization.deserializeComponentClientCommand(increaseInvoker.method, commandPayload, serializer)
+
+  @Benchmark
+  def payloadDecoderDecode(): AnyRef =
+    increaseDecoder.decode(commandPayload)
+
+  @Benchmark
+  def invokeCommand(): AnyRef =
+    increaseInvoker.invokeCommand(entity, commandPayload)
+
+  @Benchmark
+  def invokeDirectly(): AnyRef =
+    increaseInvoker.invokeDirectly(entity, command)
+
+  @Benchmark
+  def invokeArityZero(): AnyRef =
+    getInvoker.invoke(entity)
+
+  @Benchmark
+  def generatedRouterHandleCommand(): AnyRef =
+    generatedRouter.handleCommand("Increase", commandPayload)
+
+  @Benchmark
+  def reflectiveRouterHandleCommand(): AnyRef =
+    reflectiveRouter.handleCommand("Increase", commandPayload)
+
+  // baselines, plain reflective calls as MethodInvoker used to do
+
+  @Benchmark
+  def reflectiveInvokeDirectly(): AnyRef =
+    increaseInvoker.method.invoke(entity, command)
+
+  @Benchmark
+  def reflectiveInvokeArityZero(): AnyRef =
+    getInvoker.method.invoke(entity)
+
+}
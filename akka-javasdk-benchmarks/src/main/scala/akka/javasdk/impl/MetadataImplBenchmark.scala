@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.util.Optional
+import java.util.concurrent.TimeUnit
+
+import akka.runtime.sdk.spi.SpiMetadata
+import akka.runtime.sdk.spi.SpiMetadataEntry
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Metadata is wrapped for every command, event and view update, and looked up for trace ids and CloudEvent
+ * attributes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+class MetadataImplBenchmark {
+
+  // a typical set of entries for an event consumed from a topic
+  private val spiMetadata = new SpiMetadata(
+    Vector(
+      new SpiMetadataEntry("ce-specversion", "1.0"),
+      new SpiMetadataEntry("ce-id", "7b7a3bb2-2b4e-4c8b-9a53-2d0d2c6a6f0e"),
+      new SpiMetadataEntry("ce-source", "counter"),
+      new SpiMetadataEntry("ce-type", "value-increased"),
+      new SpiMetadataEntry("ce_subject", "counter-1"),
+      new SpiMetadataEntry("Content-Type", "application/json"),
+      new SpiMetadataEntry("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01")))
+
+  private val metadata = MetadataImpl.of(spiMetadata)
+
+  @Benchmark
+  def ofSpiMetadata(): MetadataImpl =
+    MetadataImpl.of(spiMetadata)
+
+  @Benchmark
+  def get(): Optional[String] =
+    metadata.get("ce-subject")
+
+  @Benchmark
+  def getMissing(): Optional[String] =
+    metadata.get("x-not-there")
+
+  @Benchmark
+  def isCloudEvent(): Boolean =
+    metadata.isCloudEvent
+
+  // trace id is lazily parsed once per metadata instance, as done for each view update
+  @Benchmark
+  def ofSpiMetadataAndTraceId(): Option[String] =
+    MetadataImpl.of(spiMetadata).traceId
+
+  @Benchmark
+  def toSpi(): SpiMetadata =
+    MetadataImpl.toSpi(metadata)
+
+}
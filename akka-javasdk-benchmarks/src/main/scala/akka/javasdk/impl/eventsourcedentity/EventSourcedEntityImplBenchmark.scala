@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Future
+
+import akka.javasdk.benchmarks.model.Counter
+import akka.javasdk.benchmarks.model.CounterEntity
+import akka.javasdk.benchmarks.model.CounterEvent
+import akka.javasdk.impl.ComponentDescriptor
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.RegionInfo
+import akka.runtime.sdk.spi.SpiEntity
+import akka.runtime.sdk.spi.SpiEventSourcedEntity
+import akka.runtime.sdk.spi.SpiMetadata
+import io.opentelemetry.api.OpenTelemetry
+import io.opentelemetry.context.Context
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * The SPI entry points of an event sourced entity: handling a command (decode, invoke, apply emitted events, encode
+ * events and reply) and applying journal events during recovery, a single event or a whole journal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+class EventSourcedEntityImplBenchmark {
+
+  private val serializer = new Serializer()
+
+  private val entityImpl =
+    new EventSourcedEntityImpl[Counter, CounterEvent, CounterEntity](
+      () => OpenTelemetry.noop().getTracer("benchmark"),
+      "counter",
+      "counter-1",
+      serializer,
+      ComponentDescriptor.descriptorFor(classOf[CounterEntity], serializer),
+      classOf[Counter],
+      new RegionInfo(""),
+      Seq.empty,
+      _ => new CounterEntity)
+
+  private val state: SpiEventSourcedEntity.State = new Counter(17)
+
+  private val increaseCommand = new SpiEntity.Command(
+    name = "Increase",
+    payload = Some(serializer.toBytes(new CounterEntity.Increase(1))),
+    metadata = SpiMetadata.empty,
+    telemetryContext = Context.root(),
+    isDeleted = false,
+    sequenceNumber = 17L)
+
+  private val getCommand = new SpiEntity.Command(
+    name = "Get",
+    payload = None,
+    metadata = SpiMetadata.empty,
+    telemetryContext = Context.root(),
+    isDeleted = false,
+    sequenceNumber = 17L)
+
+  private val eventEnvelope =
+    new SpiEventSourcedEntity.EventEnvelope(18L, serializer.toBytes(new CounterEvent.ValueIncreased(1)), SpiMetadata.empty)
+
+  @Benchmark
+  def handleCommandPersist(): Future[SpiEventSourcedEntity.Effect] =
+    entityImpl.handleCommand(state, increaseCommand)
+
+  @Benchmark
+  def handleCommandReadOnly(): Future[SpiEventSourcedEntity.Effect] =
+    entityImpl.handleCommand(state, getCommand)
+
+  @Benchmark
+  def handleEvent(): SpiEventSourcedEntity.State =
+    entityImpl.handleEvent(state, eventEnvelope)
+
+  // recovery of an entity with a long journal
+  private val journal: Vector[SpiEventSourcedEntity.EventEnvelope] =
+    Vector.tabulate(10000)(n =>
+      new SpiEventSourcedEntity.EventEnvelope(
+        n + 1L,
+        serializer.toBytes(new CounterEvent.ValueIncreased(1)),
+        SpiMetadata.empty))
+
+  @Benchmark
+  def replayJournal(): SpiEventSourcedEntity.State =
+    journal.foldLeft(entityImpl.emptyState)(entityImpl.handleEvent)
+
+}
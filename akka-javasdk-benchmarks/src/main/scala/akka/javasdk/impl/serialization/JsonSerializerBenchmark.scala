@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.serialization
+
+import java.util.concurrent.TimeUnit
+
+import akka.javasdk.benchmarks.model.CounterEvent
+import akka.runtime.sdk.spi.BytesPayload
+import akka.util.ByteString
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * Serialization of events, snapshots and commands, as done for every command and for every replayed event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+class JsonSerializerBenchmark {
+
+  private val serializer = new Serializer()
+
+  private val event = new CounterEvent.ValueIncreased(42)
+  private val eventPayload: BytesPayload = serializer.toBytes(event)
+
+  // version 0 of a type that has a migration to version 1
+  private val legacyEventPayload: BytesPayload =
+    new BytesPayload(ByteString.fromString("""{"amount":3}"""), JsonSerializer.JsonContentTypePrefix + "value-decreased")
+
+  // the same registration the event sourced entity router does up front
+  classOf[CounterEvent].getPermittedSubclasses.foreach(serializer.registerTypeHints)
+
+  @Benchmark
+  def jsonToBytes(): BytesPayload =
+    serializer.json.toBytes(event)
+
+  @Benchmark
+  def jsonFromBytesExpectedType(): CounterEvent.ValueIncreased =
+    serializer.json.fromBytes(classOf[CounterEvent.ValueIncreased], eventPayload)
+
+  @Benchmark
+  def jsonFromBytesWithMigration(): CounterEvent.ValueDecreased =
+    serializer.json.fromBytes(classOf[CounterEvent.ValueDecreased], legacyEventPayload)
+
+  @Benchmark
+  def fromBytesTypeHintLookup(): AnyRef =
+    serializer.fromBytes(eventPayload)
+
+  @Benchmark
+  def fromBytesTypeHintLookupWithMigration(): AnyRef =
+    serializer.fromBytes(legacyEventPayload)
+
+}
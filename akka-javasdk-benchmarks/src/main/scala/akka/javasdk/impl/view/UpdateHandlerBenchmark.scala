@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.view
+
+import java.util.concurrent.TimeUnit
+
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+
+import akka.javasdk.benchmarks.model.CounterEvent
+import akka.javasdk.benchmarks.model.CountersView
+import akka.javasdk.impl.ComponentDescriptorFactory
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.RegionInfo
+import akka.runtime.sdk.spi.SpiMetadata
+import akka.runtime.sdk.spi.SpiTableUpdateHandler.SpiTableUpdateEffect
+import akka.runtime.sdk.spi.SpiTableUpdateHandler.SpiTableUpdateEnvelope
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+
+/**
+ * A view table update: decode the existing row and the event, pick the handler, invoke it on a fresh table updater
+ * and encode the new row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+class UpdateHandlerBenchmark {
+
+  private val serializer = new Serializer()
+
+  // run the update on the calling thread, so that only the update itself is measured
+  private val sameThreadEc: ExecutionContext = ExecutionContext.parasitic
+
+  private val updaterClass = classOf[CountersView.CountersUpdater]
+
+  private val updateHandler = ViewDescriptorFactory.UpdateHandlerImpl(
+    "counters-view",
+    updaterClass,
+    updaterClass.getMethods.toSeq.filter(ComponentDescriptorFactory.hasUpdateEffectOutput),
+    serializer,
+    new RegionInfo(""))(sameThreadEc)
+
+  private val envelope = new SpiTableUpdateEnvelope(
+    existingTableRow = Some(serializer.toBytesAsJson(new CountersView.CounterRow(17, 3))),
+    eventPayload = serializer.toBytes(new CounterEvent.ValueIncreased(1)),
+    metadata = SpiMetadata.empty,
+    originRegion = None)
+
+  @Benchmark
+  def handle(): SpiTableUpdateEffect =
+    Await.result(updateHandler.handle(envelope), 1.second)
+
+}
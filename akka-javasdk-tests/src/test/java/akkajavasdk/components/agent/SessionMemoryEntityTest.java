@@ -534,6 +534,73 @@ public class SessionMemoryEntityTest {
     assertThat(historyResult.getReply().messages().size()).isEqualTo(2);
   }
 
+  @Test
+  public void shouldRemoveOldestMessagesWhenTokenBudgetIsReached() {
+    // given
+    var tokenBudgetConfig =
+        ConfigFactory.parseString("akka.javasdk.agent.memory.limited-window.max-tokens = 12")
+            .withFallback(config);
+    var testKit =
+        EventSourcedTestKit.of(
+            (context) -> new SessionMemoryEntity(tokenBudgetConfig, context, agentRegistryEmpty));
+    var timestamp = Instant.now();
+
+    var userMessage1 = new UserMessage(timestamp, "Hello there", COMPONENT_ID); // 2 tokens
+    var aiMessage1 = new AiMessage(timestamp, "Hi there!", COMPONENT_ID); // 3 tokens
+    var userMessage2 =
+        new UserMessage(timestamp.plusMillis(1), "How are you?", COMPONENT_ID); // 4 tokens
+    var aiMessage2 =
+        new AiMessage(timestamp.plusMillis(1), "I'm doing great!", COMPONENT_ID); // 6 tokens
+
+    // when
+    testKit
+        .method(SessionMemoryEntity::addInteraction)
+        .invoke(new AddInteractionCmd(userMessage1, aiMessage1));
+    testKit
+        .method(SessionMemoryEntity::addInteraction)
+        .invoke(new AddInteractionCmd(userMessage2, aiMessage2));
+
+    // then - the first interaction no longer fits in the budget, even if far below the max size
+    var history = testKit.method(SessionMemoryEntity::getHistory).invoke(emptyGetHistory);
+    assertThat(history.getReply().messages()).containsExactly(userMessage2, aiMessage2);
+    assertThat(testKit.getState().estimatedTokens()).isEqualTo(10);
+    assertThat(testKit.getState().truncated()).isTrue();
+  }
+
+  @Test
+  public void shouldApplyTokenBudgetToStateStoredBeforeTheBudgetWasConfigured() {
+    // given - a session stored without a token budget
+    var tokenBudgetConfig =
+        ConfigFactory.parseString("akka.javasdk.agent.memory.limited-window.max-tokens = 12")
+            .withFallback(config);
+    var timestamp = Instant.now();
+    var userMessage1 = new UserMessage(timestamp, "Hello there", COMPONENT_ID); // 2 tokens
+    var aiMessage1 = new AiMessage(timestamp, "Hi there!", COMPONENT_ID); // 3 tokens
+    var storedState =
+        new SessionMemoryEntity.State("sId", 10000, 0, new ArrayList<>())
+            .addMessage(userMessage1)
+            .addMessage(aiMessage1);
+    var testKit =
+        EventSourcedTestKit.ofEntityWithState(
+            (context) -> new SessionMemoryEntity(tokenBudgetConfig, context, agentRegistryEmpty),
+            storedState);
+
+    var userMessage2 =
+        new UserMessage(timestamp.plusMillis(1), "How are you?", COMPONENT_ID); // 4 tokens
+    var aiMessage2 =
+        new AiMessage(timestamp.plusMillis(1), "I'm doing great!", COMPONENT_ID); // 6 tokens
+
+    // when
+    testKit
+        .method(SessionMemoryEntity::addInteraction)
+        .invoke(new AddInteractionCmd(userMessage2, aiMessage2));
+
+    // then - the configured budget applies to the existing session
+    var history = testKit.method(SessionMemoryEntity::getHistory).invoke(emptyGetHistory);
+    assertThat(history.getReply().messages()).containsExactly(userMessage2, aiMessage2);
+    assertThat(testKit.getState().estimatedTokens()).isEqualTo(10);
+  }
+
   @Test
   public void shouldMaintainCorrectSizeAfterMultipleOperations() {
     // given
@@ -632,6 +699,69 @@ public class SessionMemoryEntityTest {
     assertThat(result).isInstanceOf(SessionHistoryResult.Loaded.class);
   }
 
+  @Test
+  public void shouldFetchOnlyMessagesAddedSinceSequenceNumber() {
+    // given
+    var testKit =
+        EventSourcedTestKit.of(
+            (context) -> new SessionMemoryEntity(config, context, agentRegistryEmpty));
+    var timestamp = Instant.now();
+
+    var userMessage1 = new UserMessage(timestamp, "Hello", COMPONENT_ID);
+    var aiMessage1 = new AiMessage(timestamp, "Hi there!", COMPONENT_ID);
+    var userMessage2 = new UserMessage(timestamp.plusMillis(1), "How are you?", COMPONENT_ID);
+    var aiMessage2 = new AiMessage(timestamp.plusMillis(1), "Fine, thanks", COMPONENT_ID);
+
+    testKit
+        .method(SessionMemoryEntity::addInteraction)
+        .invoke(new AddInteractionCmd(userMessage1, aiMessage1));
+
+    // when - nothing cached yet
+    var first =
+        (SessionHistoryResult.Delta)
+            testKit
+                .method(SessionMemoryEntity::fetchHistorySince)
+                .invoke(new SessionMemoryEntity.FetchHistorySinceCmd(-1))
+                .getReply();
+
+    // then
+    assertThat(first.sinceSequenceNr()).isEqualTo(-1);
+    assertThat(first.messages()).containsExactly(userMessage1, aiMessage1);
+    assertThat(first.sequenceNumber()).isEqualTo(2);
+
+    // when - relative to the first reply
+    testKit
+        .method(SessionMemoryEntity::addInteraction)
+        .invoke(new AddInteractionCmd(userMessage2, aiMessage2));
+    var second =
+        (SessionHistoryResult.Delta)
+            testKit
+                .method(SessionMemoryEntity::fetchHistorySince)
+                .invoke(new SessionMemoryEntity.FetchHistorySinceCmd(first.sequenceNumber()))
+                .getReply();
+
+    // then
+    assertThat(second.sinceSequenceNr()).isEqualTo(2);
+    assertThat(second.messages()).containsExactly(userMessage2, aiMessage2);
+    assertThat(second.historySize()).isEqualTo(4);
+    assertThat(second.truncated()).isFalse();
+
+    // when - the window was changed since, which may have dropped messages
+    testKit
+        .method(SessionMemoryEntity::setLimitedWindow)
+        .invoke(new SessionMemoryEntity.LimitedWindow(10000));
+    var third =
+        (SessionHistoryResult.Delta)
+            testKit
+                .method(SessionMemoryEntity::fetchHistorySince)
+                .invoke(new SessionMemoryEntity.FetchHistorySinceCmd(second.sequenceNumber()))
+                .getReply();
+
+    // then - the full history
+    assertThat(third.sinceSequenceNr()).isEqualTo(-1);
+    assertThat(third.messages()).containsExactly(userMessage1, aiMessage1, userMessage2, aiMessage2);
+  }
+
   @Test
   public void shouldMarkAsTruncatedAfterEvictionAndKeepFlagSticky() {
     // given
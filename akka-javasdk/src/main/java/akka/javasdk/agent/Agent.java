@@ -234,6 +234,14 @@ public abstract class Agent implements AgentDelegationWorker {
 
       Builder memory(MemoryProvider provider);
 
+      /**
+       * Reuse the model responses of earlier requests with the same or very similar user messages,
+       * instead of calling the model. Disabled by default.
+       *
+       * <p>Construct instances using {@link ResponseCacheProvider#semantic()}
+       */
+      Builder responseCache(ResponseCacheProvider provider);
+
       /**
        * Adds tools from one or more remote MCP servers.
        *
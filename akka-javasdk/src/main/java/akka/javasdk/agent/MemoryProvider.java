@@ -99,6 +99,26 @@ public sealed interface MemoryProvider {
     return new LimitedWindowMemoryProvider(Optional.empty(), true, true, List.of());
   }
 
+  /**
+   * Policy for compacting the session history in the background once it grows close to the
+   * maximum size of the memory window, see {@link LimitedWindowMemoryProvider#compactWith}.
+   *
+   * @param summarizerAgentId the component id of the agent that summarizes the history
+   * @param threshold the fraction of {@code akka.javasdk.agent.memory.limited-window.max-size} at
+   *     which the history is compacted, or empty for {@code
+   *     akka.javasdk.agent.memory.compaction.threshold}
+   */
+  record CompactionPolicy(String summarizerAgentId, Optional<Double> threshold) {
+    public CompactionPolicy {
+      Objects.requireNonNull(summarizerAgentId);
+      threshold.ifPresent(
+          t -> {
+            if (t <= 0 || t > 1)
+              throw new IllegalArgumentException("Compaction threshold must be in (0, 1]");
+          });
+    }
+  }
+
   /**
    * Memory provider that limits session history based on size or message count.
    *
@@ -109,6 +129,7 @@ public sealed interface MemoryProvider {
    *   <li>Whether reading from memory is enabled
    *   <li>Whether writing to memory is enabled
    *   <li>Applies memory filters {@link MemoryFilter}
+   *   <li>Optionally compacts the history in the background, see {@link #compactWith(String)}
    * </ul>
    *
    * <p><strong>Filter Ordering:</strong> When multiple filters are specified, filters of the same
@@ -142,9 +163,63 @@ public sealed interface MemoryProvider {
    * }</pre>
    */
   record LimitedWindowMemoryProvider(
-      Optional<Integer> readLastN, boolean read, boolean write, List<MemoryFilter> filters)
+      Optional<Integer> readLastN,
+      boolean read,
+      boolean write,
+      List<MemoryFilter> filters,
+      Optional<CompactionPolicy> compaction)
       implements MemoryProvider {
 
+    public LimitedWindowMemoryProvider(
+        Optional<Integer> readLastN, boolean read, boolean write, List<MemoryFilter> filters) {
+      this(readLastN, read, write, filters, Optional.empty());
+    }
+
+    /**
+     * Creates a new memory provider that compacts the session history in the background once it
+     * reaches {@code akka.javasdk.agent.memory.compaction.threshold} of the maximum size of the
+     * memory window, or once older messages have been dropped from it.
+     *
+     * <p>The history is passed to the command handler of the summarizer agent, which replies with
+     * an object with a {@code userMessage} and an {@code aiMessage} text summarizing the history.
+     * The summary replaces the history in the session memory, followed by any messages added while
+     * summarizing. The summarizer agent should itself use {@link MemoryProvider#none()}.
+     *
+     * <p>Compaction runs off the request path, at most once per session at a time and per {@code
+     * akka.javasdk.agent.memory.compaction.min-interval}. When {@code
+     * akka.javasdk.agent.memory.compaction.max-concurrent} compactions are already running on the
+     * node, further compactions are skipped until a later interaction.
+     *
+     * @param summarizerAgentId the component id of the agent that summarizes the history
+     * @return A new memory provider that compacts the history with the given agent
+     */
+    public LimitedWindowMemoryProvider compactWith(String summarizerAgentId) {
+      return new LimitedWindowMemoryProvider(
+          readLastN,
+          read,
+          write,
+          filters,
+          Optional.of(new CompactionPolicy(summarizerAgentId, Optional.empty())));
+    }
+
+    /**
+     * Creates a new memory provider that compacts the session history in the background once it
+     * reaches the given fraction of the maximum size of the memory window, see {@link
+     * #compactWith(String)}.
+     *
+     * @param summarizerAgentId the component id of the agent that summarizes the history
+     * @param threshold the fraction of the maximum size of the memory window, in (0, 1]
+     * @return A new memory provider that compacts the history with the given agent
+     */
+    public LimitedWindowMemoryProvider compactWith(String summarizerAgentId, double threshold) {
+      return new LimitedWindowMemoryProvider(
+          readLastN,
+          read,
+          write,
+          filters,
+          Optional.of(new CompactionPolicy(summarizerAgentId, Optional.of(threshold))));
+    }
+
     /**
      * Creates a read-only version of this memory provider.
      *
@@ -153,7 +228,7 @@ public sealed interface MemoryProvider {
      * @return A new memory provider with writing disabled
      */
     public MemoryProvider readOnly() {
-      return new LimitedWindowMemoryProvider(readLastN, true, false, List.of());
+      return new LimitedWindowMemoryProvider(readLastN, true, false, List.of(), compaction);
     }
 
     /**
@@ -183,7 +258,8 @@ public sealed interface MemoryProvider {
      * @return A new memory provider with writing disabled and the specified filters
      */
     public MemoryProvider readOnly(MemoryFilter.MemoryFilterSupplier filtersSupplier) {
-      return new LimitedWindowMemoryProvider(readLastN, true, false, filtersSupplier.get());
+      return new LimitedWindowMemoryProvider(
+          readLastN, true, false, filtersSupplier.get(), compaction);
     }
 
     /**
@@ -194,7 +270,7 @@ public sealed interface MemoryProvider {
      * @return A new memory provider with reading disabled
      */
     public MemoryProvider writeOnly() {
-      return new LimitedWindowMemoryProvider(readLastN, false, true, List.of());
+      return new LimitedWindowMemoryProvider(readLastN, false, true, List.of(), compaction);
     }
 
     /**
@@ -207,7 +283,8 @@ public sealed interface MemoryProvider {
      * @return A new memory provider with the specified history limit
      */
     public MemoryProvider readLast(int onlyLastN) {
-      return new LimitedWindowMemoryProvider(Optional.of(onlyLastN), read, write, List.of());
+      return new LimitedWindowMemoryProvider(
+          Optional.of(onlyLastN), read, write, List.of(), compaction);
     }
 
     /**
@@ -238,7 +315,7 @@ public sealed interface MemoryProvider {
     public MemoryProvider readLast(
         int onlyLastN, MemoryFilter.MemoryFilterSupplier filtersSupplier) {
       return new LimitedWindowMemoryProvider(
-          Optional.of(onlyLastN), read, write, filtersSupplier.get());
+          Optional.of(onlyLastN), read, write, filtersSupplier.get(), compaction);
     }
 
     /**
@@ -269,7 +346,8 @@ public sealed interface MemoryProvider {
      * @return A new memory provider with the specified filters
      */
     public MemoryProvider filtered(MemoryFilter.MemoryFilterSupplier filtersSupplier) {
-      return new LimitedWindowMemoryProvider(Optional.empty(), read, write, filtersSupplier.get());
+      return new LimitedWindowMemoryProvider(
+          Optional.empty(), read, write, filtersSupplier.get(), compaction);
     }
   }
 
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.agent;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Interface for configuring the caching of model responses of an agent.
+ *
+ * <p>Caching is disabled unless the agent's effect defines a {@link SemanticResponseCacheProvider}
+ * with {@code responseCache(ResponseCacheProvider.semantic())}:
+ *
+ * <ul>
+ *   <li>Disabled caching via {@link Disabled}
+ *   <li>Semantic caching via {@link SemanticResponseCacheProvider}
+ * </ul>
+ */
+public sealed interface ResponseCacheProvider {
+
+  /**
+   * Disabled response cache, the model is called for every request.
+   *
+   * @return A response cache provider without caching.
+   */
+  static Disabled none() {
+    return new Disabled();
+  }
+
+  /**
+   * Creates a semantic response cache provider with the settings of {@code
+   * akka.javasdk.agent.response-cache}.
+   *
+   * @return A new semantic response cache provider with default settings
+   */
+  static SemanticResponseCacheProvider semantic() {
+    return new SemanticResponseCacheProvider(Optional.empty(), Optional.empty(), false);
+  }
+
+  /** Disabled response cache, the model is called for every request. */
+  record Disabled() implements ResponseCacheProvider {}
+
+  /**
+   * Response cache that reuses the model response of an earlier request with a user message that is
+   * the same or very similar, such as the same question with different casing, whitespace or
+   * punctuation.
+   *
+   * <p>The cached responses are kept on each node of the service and shared by all sessions of the
+   * agent. A cached response is only used for a request with the same system message, tools,
+   * response type and session history, and only for text user messages. This is intended for
+   * agents that answer each request on its own, such as agents with {@link MemoryProvider#none()},
+   * or for the first request of a session. The cache is not used for agents with model request
+   * guardrails.
+   *
+   * <p>By default only user messages that are the same after normalization of casing, whitespace
+   * and punctuation share a response. Matching differently worded user messages with a lower
+   * threshold needs an embedding model configured in {@code
+   * akka.javasdk.agent.response-cache.embedder}, since the default embedder only compares
+   * character n-grams and scores messages with a different meaning but similar spelling as
+   * similar.
+   *
+   * <p>Responses that involved tool calls are not cached, since the results of the tools may differ
+   * for the next request, unless allowed with {@link #withToolCalls(boolean)}.
+   *
+   * @param threshold the cosine similarity of the user messages above which a cached response is
+   *     used, or empty for {@code akka.javasdk.agent.response-cache.threshold}
+   * @param ttl how long a response is cached, or empty for {@code
+   *     akka.javasdk.agent.response-cache.ttl}
+   * @param toolCalls whether responses that involved tool calls are cached
+   */
+  record SemanticResponseCacheProvider(
+      Optional<Double> threshold, Optional<Duration> ttl, boolean toolCalls)
+      implements ResponseCacheProvider {
+
+    public SemanticResponseCacheProvider {
+      Objects.requireNonNull(threshold);
+      Objects.requireNonNull(ttl);
+      threshold.ifPresent(
+          t -> {
+            if (t <= 0 || t > 1)
+              throw new IllegalArgumentException("Response cache threshold must be in (0, 1]");
+          });
+      ttl.ifPresent(
+          t -> {
+            if (t.isNegative() || t.isZero())
+              throw new IllegalArgumentException("Response cache ttl must be positive");
+          });
+    }
+
+    /**
+     * @param threshold the cosine similarity of the user messages above which a cached response
+     *     is used, 1.0 only uses responses of user messages that are the same after normalization,
+     *     lower thresholds need an embedding model in {@code
+     *     akka.javasdk.agent.response-cache.embedder}
+     * @return A copy of this provider with the given threshold
+     */
+    public SemanticResponseCacheProvider withThreshold(double threshold) {
+      return new SemanticResponseCacheProvider(Optional.of(threshold), ttl, toolCalls);
+    }
+
+    /**
+     * @param ttl how long a response is cached
+     * @return A copy of this provider with the given time to live
+     */
+    public SemanticResponseCacheProvider withTtl(Duration ttl) {
+      return new SemanticResponseCacheProvider(threshold, Optional.of(ttl), toolCalls);
+    }
+
+    /**
+     * @param toolCalls whether responses that involved tool calls are cached
+     * @return A copy of this provider that caches responses that involved tool calls or not
+     */
+    public SemanticResponseCacheProvider withToolCalls(boolean toolCalls) {
+      return new SemanticResponseCacheProvider(threshold, ttl, toolCalls);
+    }
+  }
+}
@@ -6,6 +6,7 @@ package akka.javasdk.agent;
 
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.util.List;
 
 /**
  * Outcome of {@link SessionMemoryEntity#fetchHistory}.
@@ -13,17 +14,29 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
  * <p>Either {@link Loaded}, carrying the {@link SessionHistory} the caller can use directly, or
  * {@link Truncated}, signalling that the entity dropped older messages because of its size limit
  * and the caller should stream the journal in {@code [fromSequenceNr, toSequenceNr]} to reconstruct
- * the full history.
+ * the full history. {@link SessionMemoryEntity#fetchHistorySince} can also reply with a {@link
+ * Delta} of the history.
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "@type")
 @JsonSubTypes({
   @JsonSubTypes.Type(value = SessionHistoryResult.Loaded.class, name = "L"),
-  @JsonSubTypes.Type(value = SessionHistoryResult.Truncated.class, name = "T")
+  @JsonSubTypes.Type(value = SessionHistoryResult.Truncated.class, name = "T"),
+  @JsonSubTypes.Type(value = SessionHistoryResult.Delta.class, name = "D")
 })
 public sealed interface SessionHistoryResult {
 
-  /** The entity returned the full history within its size limit. */
-  record Loaded(SessionHistory history) implements SessionHistoryResult {}
+  /**
+   * The entity returned the full history within its size limit.
+   *
+   * @param maxSizeInBytes the maximum size of the memory window of the session, or {@code 0} when
+   *     not known
+   */
+  record Loaded(SessionHistory history, long maxSizeInBytes) implements SessionHistoryResult {
+
+    public Loaded(SessionHistory history) {
+      this(history, 0L);
+    }
+  }
 
   /**
    * The entity could not deliver the full history within its in-memory size limit. Stream the
@@ -40,4 +53,33 @@ public sealed interface SessionHistoryResult {
    * between the entity reply and the journal stream) from leaking into the reconstructed history.
    */
   record Truncated(long fromSequenceNr, long toSequenceNr) implements SessionHistoryResult {}
+
+  /**
+   * Reply of {@link SessionMemoryEntity#fetchHistorySince}: the unfiltered messages added to the
+   * history after {@code sinceSequenceNr}.
+   *
+   * <p>The in-memory history of the entity is the last {@code historySize} messages of the history
+   * the caller had at {@code sinceSequenceNr} followed by {@code messages}, since older messages may
+   * have been dropped in the meantime. When {@code sinceSequenceNr} is {@code -1}, {@code messages}
+   * is the full in-memory history.
+   *
+   * @param sequenceNumber the entity's sequence number at the time of the reply
+   * @param tokenUsage total token usage across the history
+   * @param truncated whether the entity dropped older messages because of its size limit, the full
+   *     history is then in the journal in {@code [compactionSeqNr, sequenceNumber]}, like for {@link
+   *     Truncated}
+   * @param compactionSeqNr the last compaction point, or {@code 0} when not compacted
+   * @param maxSizeInBytes the maximum size of the memory window of the session, or {@code 0} when
+   *     not known
+   */
+  record Delta(
+      long sinceSequenceNr,
+      List<SessionMessage> messages,
+      int historySize,
+      long sequenceNumber,
+      SessionMessage.TokenUsage tokenUsage,
+      boolean truncated,
+      long compactionSeqNr,
+      long maxSizeInBytes)
+      implements SessionHistoryResult {}
 }
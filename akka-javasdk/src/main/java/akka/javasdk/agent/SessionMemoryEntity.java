@@ -22,7 +22,9 @@ import akka.javasdk.client.ComponentClient;
 import akka.javasdk.eventsourcedentity.EventSourcedEntity;
 import akka.javasdk.eventsourcedentity.EventSourcedEntityContext;
 import akka.javasdk.eventsourcedentity.ReplicationFilter;
+import akka.javasdk.impl.agent.BpeTokenEstimator;
 import akka.javasdk.impl.agent.MemoryHistoryUtils;
+import akka.javasdk.impl.agent.SessionMessageBuffer;
 import com.typesafe.config.Config;
 import java.time.Instant;
 import java.util.*;
@@ -46,6 +48,9 @@ import org.slf4j.LoggerFactory;
  * <ul>
  *   <li>Configurable maximum memory size via {@code
  *       akka.javasdk.agent.memory.limited-window.max-size}
+ *   <li>Optional token budget for the memory window via {@code
+ *       akka.javasdk.agent.memory.limited-window.max-tokens}, with a pluggable {@link
+ *       TokenEstimator}
  *   <li>Automatic removal of oldest messages when size limit is exceeded
  *   <li>Orphan message cleanup (removes AI/tool messages when their triggering user message is
  *       removed)
@@ -79,6 +84,8 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
   private final String sessionId;
   public final AgentRegistry agentRegistry;
   private final ReplicationFilter.Builder selfRegionFilter;
+  private final TokenEstimator tokenEstimator;
+  private final long maxSizeInTokens;
 
   public SessionMemoryEntity(
       Config config, EventSourcedEntityContext context, AgentRegistry agentRegistry) {
@@ -86,6 +93,8 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
     this.sessionId = context.entityId();
     this.agentRegistry = agentRegistry;
     this.selfRegionFilter = ReplicationFilter.includeRegion(context.selfRegion());
+    this.tokenEstimator = BpeTokenEstimator.fromConfig(config);
+    this.maxSizeInTokens = config.getLong("akka.javasdk.agent.memory.limited-window.max-tokens");
   }
 
   public record State(
@@ -95,14 +104,35 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
       List<SessionMessage> messages,
       TokenUsage tokenUsage,
       boolean truncated,
-      long compactionSeqNr) {
+      long compactionSeqNr,
+      long historyResetSeqNr) {
 
     public State(
         String sessionId,
         long maxSizeInBytes,
         long currentSizeInBytes,
         List<SessionMessage> messages) {
-      this(sessionId, maxSizeInBytes, currentSizeInBytes, messages, TokenUsage.EMPTY, false, 0L);
+      this(
+          sessionId, maxSizeInBytes, currentSizeInBytes, messages, TokenUsage.EMPTY, false, 0L, 0L);
+    }
+
+    public State(
+        String sessionId,
+        long maxSizeInBytes,
+        long currentSizeInBytes,
+        List<SessionMessage> messages,
+        TokenUsage tokenUsage,
+        boolean truncated,
+        long compactionSeqNr) {
+      this(
+          sessionId,
+          maxSizeInBytes,
+          currentSizeInBytes,
+          messages,
+          tokenUsage,
+          truncated,
+          compactionSeqNr,
+          compactionSeqNr);
     }
 
     private static final Logger logger = LoggerFactory.getLogger(State.class);
@@ -110,18 +140,26 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
     public State {
       if (maxSizeInBytes <= 0)
         throw new IllegalArgumentException("Maximum size must be greater than 0");
-      messages = messages != null ? messages : new LinkedList<>();
+      var buffer = SessionMessageBuffer.from(messages);
+      messages = buffer;
       tokenUsage = tokenUsage != null ? tokenUsage : TokenUsage.EMPTY;
       int sizeBefore = messages.size();
       currentSizeInBytes =
-          enforceMaxCapacity(sessionId, messages, currentSizeInBytes, maxSizeInBytes);
+          enforceMaxCapacity(sessionId, buffer, currentSizeInBytes, maxSizeInBytes, 0L);
       truncated = truncated || messages.size() < sizeBefore;
+      // a compaction also resets the history, for state stored before the reset was recorded
+      historyResetSeqNr = Math.max(historyResetSeqNr, compactionSeqNr);
     }
 
     public boolean isEmpty() {
       return messages.isEmpty();
     }
 
+    /** The sum of the estimated tokens of the messages in the memory window. */
+    public long estimatedTokens() {
+      return ((SessionMessageBuffer) messages).estimatedTokens();
+    }
+
     public State withMaxSize(int newMaxSize) {
       return new State(
           sessionId,
@@ -130,15 +168,35 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
           messages,
           tokenUsage,
           truncated,
-          compactionSeqNr);
+          compactionSeqNr,
+          historyResetSeqNr);
     }
 
     public State addMessage(SessionMessage message) {
+      return addMessage(message, BpeTokenEstimator.INSTANCE.estimateTokens(message), 0L);
+    }
+
+    /**
+     * Add a message with its estimated tokens, and remove the oldest messages while the estimated
+     * tokens of the window exceed {@code maxSizeInTokens}. With 0 only the size limit applies. The
+     * token budget is not kept in the state, so that a changed configuration also applies to
+     * existing sessions.
+     */
+    public State addMessage(SessionMessage message, int estimatedTokens, long maxSizeInTokens) {
       // avoid copies of the list for efficiency, need to be careful not to return the list ref to
       // outside
-      messages.add(message);
-
-      var updatedSize = currentSizeInBytes + message.size();
+      var buffer = (SessionMessageBuffer) messages;
+      buffer.addLast(message, estimatedTokens);
+
+      int sizeBefore = buffer.size();
+      var updatedSize =
+          enforceMaxCapacity(
+              sessionId,
+              buffer,
+              currentSizeInBytes + message.size(),
+              maxSizeInBytes,
+              maxSizeInTokens);
+      var truncated = this.truncated || buffer.size() < sizeBefore;
 
       var tokenUsage = this.tokenUsage;
       if (message instanceof AiMessage aiMessage) {
@@ -146,7 +204,31 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
       }
 
       return new State(
-          sessionId, maxSizeInBytes, updatedSize, messages, tokenUsage, truncated, compactionSeqNr);
+          sessionId,
+          maxSizeInBytes,
+          updatedSize,
+          messages,
+          tokenUsage,
+          truncated,
+          compactionSeqNr,
+          historyResetSeqNr);
+    }
+
+    /**
+     * Record the journal sequence number of an event that changed the history other than by
+     * appending a message. Each event after it appends exactly one message, which is what allows
+     * {@link SessionMemoryEntity#fetchHistorySince} to reply with only the appended messages.
+     */
+    public State withHistoryResetAt(long sequenceNumber) {
+      return new State(
+          sessionId,
+          maxSizeInBytes,
+          currentSizeInBytes,
+          messages,
+          tokenUsage,
+          truncated,
+          compactionSeqNr,
+          sequenceNumber);
     }
 
     /**
@@ -160,7 +242,15 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
      * and is reset to {@code 0} along with the rest of the state.
      */
     public State clear() {
-      return new State(sessionId, maxSizeInBytes, 0, new LinkedList<>(), tokenUsage, false, 0L);
+      return new State(
+          sessionId,
+          maxSizeInBytes,
+          0,
+          new SessionMessageBuffer(),
+          tokenUsage,
+          false,
+          0L,
+          historyResetSeqNr);
     }
 
     /**
@@ -175,11 +265,22 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
      */
     public State compact(long compactedAtSeqNr) {
       return new State(
-          sessionId, maxSizeInBytes, 0, new LinkedList<>(), tokenUsage, false, compactedAtSeqNr);
+          sessionId,
+          maxSizeInBytes,
+          0,
+          new SessionMessageBuffer(),
+          tokenUsage,
+          false,
+          compactedAtSeqNr,
+          compactedAtSeqNr);
     }
 
     private static long enforceMaxCapacity(
-        String sessionId, List<SessionMessage> messages, long currentSize, long maxSize) {
+        String sessionId,
+        SessionMessageBuffer messages,
+        long currentSize,
+        long maxSize,
+        long maxTokens) {
       var freedSpace = 0;
       while ((currentSize - freedSpace) > maxSize) {
         freedSpace += messages.removeFirst().size();
@@ -190,6 +291,16 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
             maxSize);
       }
 
+      // a token budget of 0 means that the window is only limited by size
+      while (maxTokens > 0 && messages.estimatedTokens() > maxTokens) {
+        freedSpace += messages.removeFirst().size();
+        logger.debug(
+            "Removed oldest message for sessionId [{}]. Remaining tokens [{}], maxTokens [{}]",
+            sessionId,
+            messages.estimatedTokens(),
+            maxTokens);
+      }
+
       // remove all messages that are not UserMessage or MultimodalUserMessage since those were
       // driven by the deleted UserMessage
       while (!messages.isEmpty()
@@ -210,7 +321,7 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
   @Override
   public State emptyState() {
     var maxSizeInBytes = config.getBytes("akka.javasdk.agent.memory.limited-window.max-size");
-    return new State(sessionId, maxSizeInBytes, 0, new LinkedList<>());
+    return new State(sessionId, maxSizeInBytes, 0, new SessionMessageBuffer());
   }
 
   /** Sealed interface representing events that can occur in the SessionMemory entity. */
@@ -470,7 +581,10 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
   public Effect<SessionHistoryResult> fetchHistory(GetHistoryCmd cmd) {
     var sanitizedCmd = sanitizeCmd(cmd);
     if (!currentState().truncated) {
-      return effects().reply(new SessionHistoryResult.Loaded(buildSessionHistory(cmd)));
+      return effects()
+          .reply(
+              new SessionHistoryResult.Loaded(
+                  buildSessionHistory(cmd), currentState().maxSizeInBytes));
     }
 
     // Truncated: we can still satisfy a "last N" request when the in-memory state (after
@@ -479,7 +593,8 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
     if (sanitizedCmd.lastNMessages.isPresent()) {
       var results = buildSessionHistory(sanitizedCmd);
       if (results.messages().size() >= sanitizedCmd.lastNMessages.get()) {
-        return effects().reply(new SessionHistoryResult.Loaded(results));
+        return effects()
+            .reply(new SessionHistoryResult.Loaded(results, currentState().maxSizeInBytes));
       }
     }
 
@@ -489,12 +604,60 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
                 currentState().compactionSeqNr, commandContext().sequenceNumber()));
   }
 
+  /**
+   * @param sequenceNumber the sequence number of the history the caller already has, or {@code -1}
+   *     if it has none
+   */
+  public record FetchHistorySinceCmd(long sequenceNumber) {}
+
+  /**
+   * Like {@link #fetchHistory} but replies with a {@link SessionHistoryResult.Delta} carrying only
+   * the messages added after {@code cmd.sequenceNumber}, unfiltered. When the messages added since
+   * can't be told apart, because the history was compacted, deleted or resized since, the delta
+   * carries the full in-memory history instead.
+   *
+   * <p>Internal SDK use: {@link akka.javasdk.impl.agent.SessionMemoryClient} calls this and keeps a
+   * node-local copy of the history that the delta is applied to, so that each agent turn only
+   * transfers the messages of the previous turn. Filtering, and the fallback to a chunked journal
+   * read when the entity has dropped older messages, are then done by the caller.
+   */
+  public Effect<SessionHistoryResult> fetchHistorySince(FetchHistorySinceCmd cmd) {
+    var state = currentState();
+    var sequenceNumber = commandContext().sequenceNumber();
+    var appended = sequenceNumber - cmd.sequenceNumber;
+    var messages = state.messages;
+
+    final long sinceSequenceNr;
+    final List<SessionMessage> delta;
+    if (cmd.sequenceNumber >= state.historyResetSeqNr
+        && appended >= 0
+        && appended <= messages.size()) {
+      sinceSequenceNr = cmd.sequenceNumber;
+      delta = List.copyOf(messages.subList(messages.size() - (int) appended, messages.size()));
+    } else {
+      sinceSequenceNr = -1;
+      delta = List.copyOf(messages);
+    }
+
+    return effects()
+        .reply(
+            new SessionHistoryResult.Delta(
+                sinceSequenceNr,
+                delta,
+                messages.size(),
+                sequenceNumber,
+                state.tokenUsage,
+                state.truncated,
+                state.compactionSeqNr,
+                state.maxSizeInBytes));
+  }
+
   private SessionHistory buildSessionHistory(GetHistoryCmd cmd) {
     var filtered = filteredMessages(cmd.memoryFilters);
     var trimmed = MemoryHistoryUtils.trimToLastN(filtered, cmd.lastNMessages);
     // make sure this returns a copy of the list and not the list itself
     return new SessionHistory(
-        new LinkedList<>(trimmed), commandContext().sequenceNumber(), currentState().tokenUsage);
+        new ArrayList<>(trimmed), commandContext().sequenceNumber(), currentState().tokenUsage);
   }
 
   // keeping UserMessage instead of MultimodalUserMessage for compaction
@@ -648,26 +811,34 @@ public final class SessionMemoryEntity extends EventSourcedEntity<State, Event>
   public State applyEvent(Event event) {
     return switch (event) {
       case Event.LimitedWindowSet limitedWindowSet ->
-          currentState().withMaxSize(limitedWindowSet.maxSizeInBytes);
+          currentState()
+              .withMaxSize(limitedWindowSet.maxSizeInBytes)
+              .withHistoryResetAt(eventContext().sequenceNumber());
 
       case Event.UserMessageAdded userMsg ->
-          currentState().addMessage(SessionMessageConverter.apply(userMsg));
+          addMessage(SessionMessageConverter.apply(userMsg));
 
       case Event.MultimodalUserMessageAdded multimodalUserMsg ->
-          currentState().addMessage(SessionMessageConverter.apply(multimodalUserMsg));
+          addMessage(SessionMessageConverter.apply(multimodalUserMsg));
 
       case Event.AiMessageAdded aiMsg ->
-          currentState().addMessage(SessionMessageConverter.apply(aiMsg));
+          addMessage(SessionMessageConverter.apply(aiMsg));
 
       case Event.ToolResponseMessageAdded toolMsg ->
-          currentState().addMessage(SessionMessageConverter.apply(toolMsg));
+          addMessage(SessionMessageConverter.apply(toolMsg));
 
       case Event.MultimodalToolResponseMessageAdded multimodalToolMsg ->
-          currentState().addMessage(SessionMessageConverter.apply(multimodalToolMsg));
+          addMessage(SessionMessageConverter.apply(multimodalToolMsg));
 
       case Event.HistoryCleared __ -> currentState().compact(eventContext().sequenceNumber());
 
-      case Event.Deleted __ -> currentState().clear();
+      case Event.Deleted __ ->
+          currentState().clear().withHistoryResetAt(eventContext().sequenceNumber());
     };
   }
+
+  private State addMessage(SessionMessage message) {
+    return currentState()
+        .addMessage(message, tokenEstimator.estimateTokens(message), maxSizeInTokens);
+  }
 }
@@ -4,18 +4,54 @@
 
 package akka.javasdk.agent;
 
+import akka.javasdk.impl.agent.HashedNGramEmbedder;
+import akka.javasdk.impl.agent.SimilarityIndex;
+import java.util.Locale;
+
 /**
  * The SimilarityGuard evaluates the text by making a similarity search in a dataset of "bad
  * examples". If the similarity exceeds a threshold, the result is flagged as blocked.
+ *
+ * <p>By default the similarity search runs in the runtime. With {@code engine = "in-process"} in
+ * the guardrail's config it runs in the service instead, with the examples embedded by the {@link
+ * TextEmbedder} configured in {@code embedder}, or by default by hashing their character n-grams.
  */
 public final class SimilarityGuard implements TextGuardrail {
   private final String badExamplesResourceDir;
   private final double threshold;
+  // only for the in-process engine
+  private final SimilarityIndex index;
 
-  /** Reads {@code bad-examples-resource-dir} and {@code threshold} from the guardrail's config. */
+  /**
+   * Reads {@code bad-examples-resource-dir}, {@code threshold} and the optional {@code engine},
+   * {@code embedder} and {@code approximate-search} from the guardrail's config.
+   */
   public SimilarityGuard(GuardrailContext context) {
-    this.badExamplesResourceDir = context.config().getString("bad-examples-resource-dir");
-    this.threshold = context.config().getDouble("threshold");
+    var config = context.config();
+    this.badExamplesResourceDir = config.getString("bad-examples-resource-dir");
+    this.threshold = config.getDouble("threshold");
+    var engine = config.hasPath("engine") ? config.getString("engine") : "runtime";
+    this.index =
+        switch (engine) {
+          case "runtime" -> null;
+          case "in-process" -> {
+            var embedderClass = config.hasPath("embedder") ? config.getString("embedder") : "";
+            var embedder =
+                embedderClass.isBlank()
+                    ? HashedNGramEmbedder.INSTANCE
+                    : SimilarityIndex.embedder(embedderClass);
+            var approximate =
+                config.hasPath("approximate-search") && config.getBoolean("approximate-search");
+            yield SimilarityIndex.forResourceDir(badExamplesResourceDir, embedder, approximate);
+          }
+          default ->
+              throw new IllegalArgumentException(
+                  "Unknown engine ["
+                      + engine
+                      + "] of guardrail ["
+                      + context.name()
+                      + "], must be runtime or in-process");
+        };
   }
 
   /** The similarity score above which text is flagged as blocked. */
@@ -28,8 +64,24 @@ public final class SimilarityGuard implements TextGuardrail {
     return badExamplesResourceDir;
   }
 
+  /** Whether the similarity search runs in the service rather than in the runtime. */
+  public boolean inProcess() {
+    return index != null;
+  }
+
   @Override
   public Result evaluate(String text) {
-    throw new IllegalStateException("Not expected to be called");
+    if (index == null)
+      throw new IllegalStateException("Not expected to be called, evaluated by the runtime");
+    var similarity = index.maxSimilarity(text);
+    if (similarity > threshold)
+      return new Result(
+          false,
+          String.format(
+              Locale.ROOT,
+              "Content similarity [%.2f] to bad examples exceeds threshold [%.2f]",
+              similarity,
+              threshold));
+    else return Result.OK;
   }
 }
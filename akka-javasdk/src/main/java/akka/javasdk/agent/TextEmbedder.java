@@ -0,0 +1,21 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.agent;
+
+/**
+ * Turns text into a vector, used by the {@link SimilarityGuard} when its similarity search runs in
+ * the service with {@code engine = "in-process"}. Texts are compared by the cosine similarity of
+ * their vectors.
+ *
+ * <p>The default embedder hashes the character n-grams of the text and needs no model. A custom
+ * embedder, for example a local embedding model, is configured with the fully qualified class name
+ * in the {@code embedder} property of the guardrail and must have a public no-argument
+ * constructor. It must be thread safe and return vectors of the same length for all texts.
+ */
+public interface TextEmbedder {
+
+  /** The vector of the text, it doesn't have to be normalized. */
+  float[] embed(String text);
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.agent;
+
+import java.util.List;
+
+/**
+ * Estimates the number of model tokens of session messages, used to limit the session memory window
+ * to a token budget with {@code akka.javasdk.agent.memory.limited-window.max-tokens}.
+ *
+ * <p>The default estimator approximates a BPE tokenizer without a vocabulary. A custom estimator,
+ * for example backed by the tokenizer of the model in use, is configured with the fully qualified
+ * class name in {@code akka.javasdk.agent.memory.limited-window.token-estimator} and must have a
+ * public no-argument constructor. The estimate must only depend on the text, since the memory
+ * window is rebuilt from the stored events.
+ */
+public interface TokenEstimator {
+
+  /** The estimated number of tokens of the text. */
+  int estimateTokens(String text);
+
+  /** The estimated number of tokens of the message, counting the same parts as its size. */
+  default int estimateTokens(SessionMessage message) {
+    return switch (message) {
+      case SessionMessage.UserMessage user -> estimateTokens(user.text());
+      case SessionMessage.MultimodalUserMessage user -> estimateTokens(user.contents());
+      case SessionMessage.AiMessage ai -> {
+        int tokens = ai.text() == null ? 0 : estimateTokens(ai.text());
+        tokens += ai.thinking().map(this::estimateTokens).orElse(0);
+        if (ai.toolCallRequests() != null) {
+          for (var request : ai.toolCallRequests()) {
+            if (request.arguments() != null) tokens += estimateTokens(request.arguments());
+          }
+        }
+        yield tokens;
+      }
+      case SessionMessage.ToolCallResponse response -> estimateTokens(response.text());
+      case SessionMessage.MultimodalToolCallResponse response ->
+          estimateTokens(response.contents());
+    };
+  }
+
+  private int estimateTokens(List<SessionMessage.MessageContent> contents) {
+    return contents.stream()
+        .mapToInt(
+            content ->
+                switch (content) {
+                  case SessionMessage.MessageContent.TextMessageContent text ->
+                      estimateTokens(text.text());
+                  case SessionMessage.MessageContent.ImageUriMessageContent image ->
+                      estimateTokens(image.uri());
+                  case SessionMessage.MessageContent.PdfUriMessageContent pdf ->
+                      estimateTokens(pdf.uri());
+                })
+        .sum();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a {@link FunctionTool} method, for tools that return the same result for
+ * the same arguments, such as view queries or lookups in external services.
+ *
+ * <p>The results are cached on each node of the service, shared by all agents and sessions, and
+ * keyed by the tool method and its arguments, regardless of the order of the fields of the JSON
+ * arguments requested by the model. The results of the tools of the agent itself, and of tool
+ * objects passed to the agent as instances, are only shared within the same session, since they may
+ * depend on the state of the instance. Failed calls are not cached.
+ *
+ * <pre>{@code
+ * @FunctionTool(description = "Returns the current weather forecast for a given city.")
+ * @CacheToolResult(ttlSeconds = 300)
+ * public String getWeather(String location) {
+ *   ...
+ * }
+ * }</pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheToolResult {
+
+  /** How long a result is used before the tool is called again, in seconds. */
+  long ttlSeconds() default 60;
+
+  /**
+   * The maximum number of cached results of the tool, the least recently used results are dropped
+   * first.
+   */
+  int maxEntries() default 1000;
+}
@@ -58,6 +58,9 @@ import java.lang.annotation.Target;
  * <p><strong>Tool Execution:</strong> The agent automatically handles the tool execution loop: the
  * LLM requests tool calls, the agent executes them, incorporates results into the session context,
  * and continues until the LLM no longer needs to invoke tools.
+ *
+ * <p>The results of tools that return the same result for the same arguments can be cached with
+ * {@link CacheToolResult}.
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl;
+
+import akka.annotation.InternalApi;
+import akka.runtime.sdk.spi.BytesPayload;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * INTERNAL API
+ *
+ * <p>Command router for an entity or workflow generated by the Akka SDK annotation processor. It
+ * is a plain {@code switch} on the command name calling the command handler directly, used instead
+ * of the reflective routing when present on the classpath. The generated class lives in the same
+ * package as the component and is named after the binary name of the component, with {@code $}
+ * replaced by {@code _}, followed by {@link #CLASS_NAME_SUFFIX}.
+ *
+ * <p>Not for user extension or instantiation, the generated code must be kept in sync with the
+ * annotation processor.
+ */
+@InternalApi
+public interface GeneratedCommandRouter<C> {
+
+  String CLASS_NAME_SUFFIX = "_AkkaCommandRouter";
+
+  /** Decodes the command payload to the parameter type of the command handler. */
+  interface CommandDecoder {
+
+    <T> T decode(
+        BytesPayload command, Class<T> parameterType, String methodName, String parameterName);
+
+    RuntimeException handlerNotFound(String commandName);
+  }
+
+  /**
+   * The parameter types of the command handlers the router was generated for, by command name, used
+   * to detect a stale generated router.
+   */
+  Map<String, List<Class<?>>> commandHandlers();
+
+  /**
+   * @return the effect returned by the command handler
+   */
+  Object handleCommand(
+      C component, String commandName, BytesPayload command, CommandDecoder decoder);
+}
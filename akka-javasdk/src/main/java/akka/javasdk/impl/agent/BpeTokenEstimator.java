@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent;
+
+import akka.annotation.InternalApi;
+import akka.javasdk.agent.TokenEstimator;
+import com.typesafe.config.Config;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * INTERNAL API
+ *
+ * <p>Offline token estimate that mimics how BPE tokenizers split text, without a vocabulary: text
+ * is split in runs of latin letters, runs of digits, runs of whitespace and other characters. A
+ * single space is merged with the word that follows it, words take a token for each 5 letters,
+ * numbers a token for each 3 digits, and any other character, such as punctuation or CJK, a token
+ * each. This is close to the common tokenizers for English text and code and errs on the high side
+ * for other languages.
+ */
+@InternalApi
+public final class BpeTokenEstimator implements TokenEstimator {
+
+  public static final BpeTokenEstimator INSTANCE = new BpeTokenEstimator();
+
+  private static final String ESTIMATOR_PATH =
+      "akka.javasdk.agent.memory.limited-window.token-estimator";
+
+  private static final int LETTERS_PER_TOKEN = 5;
+  private static final int DIGITS_PER_TOKEN = 3;
+
+  private static final Map<String, TokenEstimator> customEstimators = new ConcurrentHashMap<>();
+
+  private BpeTokenEstimator() {}
+
+  /** The estimator configured in {@code limited-window.token-estimator}, or the default one. */
+  public static TokenEstimator fromConfig(Config config) {
+    var className = config.hasPath(ESTIMATOR_PATH) ? config.getString(ESTIMATOR_PATH) : "";
+    if (className.isBlank()) return INSTANCE;
+    else return customEstimators.computeIfAbsent(className, BpeTokenEstimator::instantiate);
+  }
+
+  private static TokenEstimator instantiate(String className) {
+    try {
+      return Class.forName(className)
+          .asSubclass(TokenEstimator.class)
+          .getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new IllegalArgumentException(
+          "Could not create the token estimator [" + className + "] of [" + ESTIMATOR_PATH + "]",
+          e);
+    }
+  }
+
+  @Override
+  public int estimateTokens(String text) {
+    if (text == null) return 0;
+    int tokens = 0;
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      int start = i;
+      if (isLatinLetter(c)) {
+        while (i < length && isLatinLetter(text.charAt(i))) i++;
+        tokens += Math.ceilDiv(i - start, LETTERS_PER_TOKEN);
+      } else if (isDigit(c)) {
+        while (i < length && isDigit(text.charAt(i))) i++;
+        tokens += Math.ceilDiv(i - start, DIGITS_PER_TOKEN);
+      } else if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(text.charAt(i))) i++;
+        boolean leadingSpaceOfWord =
+            c == ' ' && i == start + 1 && i < length && isLatinLetter(text.charAt(i));
+        if (!leadingSpaceOfWord) tokens++;
+      } else {
+        i += Character.charCount(text.codePointAt(i));
+        tokens++;
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean isLatinLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent;
+
+import akka.annotation.InternalApi;
+import akka.javasdk.agent.TextEmbedder;
+
+/**
+ * INTERNAL API
+ *
+ * <p>Embeds text without a model by hashing its character n-grams into a fixed number of
+ * dimensions. The text is lower cased and runs of whitespace are collapsed, then each 3-gram and
+ * 4-gram of the text, including the spaces between words, adds one to the dimension of its hash,
+ * with a sign from another bit of the hash so that collisions tend to cancel out. Texts that share
+ * many phrases, such as reworded copies of the same prompt, get a high cosine similarity.
+ */
+@InternalApi
+public final class HashedNGramEmbedder implements TextEmbedder {
+
+  public static final HashedNGramEmbedder INSTANCE = new HashedNGramEmbedder();
+
+  static final int DIMENSIONS = 1024;
+
+  private static final int MIN_GRAM = 3;
+  private static final int MAX_GRAM = 4;
+
+  private HashedNGramEmbedder() {}
+
+  @Override
+  public float[] embed(String text) {
+    var vector = new float[DIMENSIONS];
+    if (text == null) return vector;
+    var normalized = normalize(text);
+    for (int n = MIN_GRAM; n <= MAX_GRAM; n++) {
+      for (int start = 0; start + n <= normalized.length(); start++) {
+        int hash = fnv1a(normalized, start, start + n);
+        // the low bits select the dimension, a high bit the sign
+        vector[hash & (DIMENSIONS - 1)] += (hash & 0x80000000) == 0 ? 1f : -1f;
+      }
+    }
+    return vector;
+  }
+
+  private static String normalize(String text) {
+    var builder = new StringBuilder(text.length() + 2).append(' ');
+    boolean space = true;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isWhitespace(c)) {
+        if (!space) builder.append(' ');
+        space = true;
+      } else {
+        builder.append(Character.toLowerCase(c));
+        space = false;
+      }
+    }
+    if (!space) builder.append(' ');
+    return builder.toString();
+  }
+
+  private static int fnv1a(String text, int from, int until) {
+    int hash = 0x811c9dc5;
+    for (int i = from; i < until; i++) {
+      hash ^= text.charAt(i);
+      hash *= 0x01000193;
+    }
+    // spread the low bits, FNV mixes the last characters into them poorly
+    hash ^= hash >>> 16;
+    hash *= 0x45d9f3b;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+}
@@ -13,12 +13,16 @@ import akka.javasdk.client.ComponentClient;
 public final class PromptTemplateClient {
 
   private final ComponentClient componentClient;
+  private final PromptTemplateCache cache;
 
-  public PromptTemplateClient(ComponentClient componentClient) {
+  public PromptTemplateClient(ComponentClient componentClient, PromptTemplateCache cache) {
     this.componentClient = componentClient;
+    this.cache = cache;
   }
 
   public String getPromptTemplate(String templateId) {
-    return componentClient.forEventSourcedEntity(templateId).method(PromptTemplate::get).invoke();
+    return cache.get(
+        templateId,
+        id -> componentClient.forEventSourcedEntity(id).method(PromptTemplate::get).invoke());
   }
 }
@@ -4,10 +4,14 @@
 
 package akka.javasdk.impl.agent;
 
+import akka.Done;
+import akka.actor.typed.javadsl.Adapter;
 import akka.annotation.InternalApi;
 import akka.japi.pf.PFBuilder;
+import akka.javasdk.Metadata;
 import akka.javasdk.agent.AgentRegistry;
 import akka.javasdk.agent.MemoryFilter;
+import akka.javasdk.agent.MemoryProvider;
 import akka.javasdk.agent.SessionHistory;
 import akka.javasdk.agent.SessionHistoryResult;
 import akka.javasdk.agent.SessionMemory;
@@ -20,11 +24,16 @@ import akka.javasdk.impl.serialization.Serializer;
 import akka.runtime.sdk.spi.EventLogClient;
 import akka.stream.Materializer;
 import akka.stream.javadsl.Sink;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.typesafe.config.Config;
+import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.PartialFunction;
@@ -37,7 +46,16 @@ public final class SessionMemoryClient implements SessionMemory {
       boolean read,
       boolean write,
       Optional<Integer> historyLimit,
-      List<MemoryFilter> memoryFilters) {
+      List<MemoryFilter> memoryFilters,
+      Optional<MemoryProvider.CompactionPolicy> compaction) {
+
+    public MemorySettings(
+        boolean read,
+        boolean write,
+        Optional<Integer> historyLimit,
+        List<MemoryFilter> memoryFilters) {
+      this(read, write, historyLimit, memoryFilters, Optional.empty());
+    }
 
     static MemorySettings disabled() {
       return new MemorySettings(false, false, Optional.empty(), List.of());
@@ -48,6 +66,25 @@ public final class SessionMemoryClient implements SessionMemory {
     }
   }
 
+  /** The reply of a summarizer agent, see {@link MemoryProvider.CompactionPolicy}. */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  record CompactionSummary(String userMessage, String aiMessage) {}
+
+  // the first chunk of a tail first journal read is at least this many events
+  private static final long MIN_JOURNAL_CHUNK_SIZE = 32;
+
+  /**
+   * Metadata of the summarizer request of a compaction. The summarizer runs without session memory,
+   * so that its own turn is not written into the session that it compacts.
+   */
+  public static final String COMPACTION_METADATA_KEY = "akka-session-compaction";
+
+  // the summarizer requests of compactions wait behind the requests of interactive agents
+  private static final Metadata COMPACTION_METADATA =
+      Metadata.EMPTY
+          .add(ModelCallScheduler.PriorityMetadataKey(), "background")
+          .add(COMPACTION_METADATA_KEY, "true");
+
   private final Logger logger = LoggerFactory.getLogger(SessionMemoryClient.class);
   private final ComponentClient componentClient;
   private final EventLogClient eventLogClient;
@@ -55,6 +92,8 @@ public final class SessionMemoryClient implements SessionMemory {
   private final AgentRegistry agentRegistry;
   private final Materializer materializer;
   private final MemorySettings memorySettings;
+  private final SessionHistoryCache historyCache;
+  private final SessionMemoryCompactor compactor;
   private final PartialFunction<Object, SessionMessage> sessionMessageCollectPF;
 
   public SessionMemoryClient(
@@ -86,6 +125,8 @@ public final class SessionMemoryClient implements SessionMemory {
     this.agentRegistry = agentRegistry;
     this.materializer = materializer;
     this.memorySettings = memorySettings;
+    this.historyCache = SessionHistoryCache.get(Adapter.toTyped(materializer.system()));
+    this.compactor = SessionMemoryCompactor.get(Adapter.toTyped(materializer.system()));
 
     this.sessionMessageCollectPF =
         new PFBuilder<Object, SessionMessage>()
@@ -145,6 +186,14 @@ public final class SessionMemoryClient implements SessionMemory {
    *
    * <p>Strategy: ask the entity first; if it replies {@code Truncated}, switch to the chunked
    * journal stream so the model never sees an incomplete context.
+   *
+   * <p>The entity is asked with {@link SessionMemoryEntity#fetchHistorySince} for the messages
+   * added after the history in the node-local {@link SessionHistoryCache}, and the filters and
+   * limit are applied here, so that a long session doesn't transfer its whole history on each
+   * turn.
+   *
+   * <p>With a {@link MemoryProvider.CompactionPolicy}, a history that reaches the compaction
+   * threshold is compacted in the background, so that later reads stay on the entity path.
    */
   @Override
   public SessionHistory getHistory(String sessionId) {
@@ -154,36 +203,203 @@ public final class SessionMemoryClient implements SessionMemory {
       return SessionHistory.EMPTY;
     }
 
+    if (!historyCache.enabled()) {
+      var result =
+          componentClient
+              .forEventSourcedEntity(sessionId)
+              .method(SessionMemoryEntity::fetchHistory)
+              .invoke(
+                  new SessionMemoryEntity.GetHistoryCmd(
+                      memorySettings.historyLimit, memorySettings.memoryFilters));
+      return fromResult(sessionId, result);
+    }
+
     var result =
         componentClient
             .forEventSourcedEntity(sessionId)
-            .method(SessionMemoryEntity::fetchHistory)
+            .method(SessionMemoryEntity::fetchHistorySince)
             .invoke(
-                new SessionMemoryEntity.GetHistoryCmd(
-                    memorySettings.historyLimit, memorySettings.memoryFilters));
+                new SessionMemoryEntity.FetchHistorySinceCmd(
+                    historyCache.sequenceNumber(sessionId)));
+    return fromResult(sessionId, result);
+  }
 
+  private SessionHistory fromResult(String sessionId, SessionHistoryResult result) {
     return switch (result) {
-      case SessionHistoryResult.Loaded(var history) -> {
+      case SessionHistoryResult.Delta delta -> {
+        var cached = historyCache.applyDelta(sessionId, delta);
+        if (cached.isEmpty()) {
+          // not relative to the cached history, which is now dropped, read the full history
+          logger.debug("History delta not applicable for sessionId [{}]", sessionId);
+          yield getHistory(sessionId);
+        }
+        compactIfNeeded(
+            sessionId, cached.get().messages(), delta.truncated(), delta.maxSizeInBytes());
+        yield fromDelta(sessionId, delta, cached.get());
+      }
+      case SessionHistoryResult.Loaded(var history, var maxSizeInBytes) -> {
         logger.debug(
             "History retrieved from entity for sessionId [{}], size [{}]",
             sessionId,
             history.messages().size());
+        compactIfNeeded(sessionId, history.messages(), false, maxSizeInBytes);
         yield history;
       }
-      case SessionHistoryResult.Truncated(var fromSequenceNr, var toSequenceNr) ->
-          fetchHistoryFromJournal(sessionId, fromSequenceNr, toSequenceNr);
+      case SessionHistoryResult.Truncated(var fromSequenceNr, var toSequenceNr) -> {
+        compactIfNeeded(sessionId, List.of(), true, 0L);
+        yield fetchHistoryFromJournal(sessionId, fromSequenceNr, toSequenceNr);
+      }
     };
   }
 
+  private void compactIfNeeded(
+      String sessionId, List<SessionMessage> messages, boolean truncated, long maxSizeInBytes) {
+    memorySettings.compaction.ifPresent(
+        policy -> {
+          long sizeInBytes = 0;
+          for (var message : messages) sizeInBytes += message.size();
+          if (compactor.thresholdReached(
+              sizeInBytes, truncated, policy.threshold(), maxSizeInBytes)) {
+            compactor.compact(sessionId, () -> compact(sessionId, policy));
+          }
+        });
+  }
+
+  /**
+   * Summarize the history of the session with the summarizer agent of the policy and replace the
+   * history with the summary, keeping the messages added while summarizing.
+   */
+  private CompletionStage<Done> compact(String sessionId, MemoryProvider.CompactionPolicy policy) {
+    return componentClient
+        .forEventSourcedEntity(sessionId)
+        .method(SessionMemoryEntity::getHistory)
+        .invokeAsync(new SessionMemoryEntity.GetHistoryCmd())
+        .thenCompose(
+            history ->
+                componentClient
+                    .forAgent()
+                    .inSession(sessionId)
+                    .<SessionHistory, Object>dynamicCall(policy.summarizerAgentId())
+                    .withMetadata(COMPACTION_METADATA)
+                    .invokeAsync(history)
+                    .thenCompose(
+                        reply -> {
+                          var summary =
+                              serializer
+                                  .objectMapper()
+                                  .convertValue(reply, CompactionSummary.class);
+                          var now = Instant.now();
+                          return componentClient
+                              .forEventSourcedEntity(sessionId)
+                              .method(SessionMemoryEntity::compactHistory)
+                              .invokeAsync(
+                                  new SessionMemoryEntity.CompactionCmd(
+                                      new SessionMessage.UserMessage(
+                                          now, summary.userMessage(), ""),
+                                      new SessionMessage.AiMessage(now, summary.aiMessage(), ""),
+                                      history.sequenceNumber()));
+                        }));
+  }
+
+  /**
+   * Same as {@link SessionMemoryEntity#fetchHistory} for the unfiltered in-memory {@code history}
+   * of the entity: filtered and limited here, or read from the journal if the entity has dropped
+   * messages that may be needed.
+   */
+  private SessionHistory fromDelta(
+      String sessionId, SessionHistoryResult.Delta delta, SessionHistory history) {
+    var filtered =
+        MemoryHistoryUtils.applyFilters(
+            history.messages(),
+            memorySettings.memoryFilters,
+            MemoryHistoryUtils.roleLookup(agentRegistry));
+
+    // like the entity, a truncated history is still enough for a "last N" request when it
+    // contains at least N matches, because truncation only drops the oldest messages
+    if (delta.truncated()
+        && (memorySettings.historyLimit.isEmpty()
+            || filtered.size() < memorySettings.historyLimit.get())) {
+      return fetchHistoryFromJournal(sessionId, delta.compactionSeqNr(), delta.sequenceNumber());
+    }
+
+    var trimmed = MemoryHistoryUtils.trimToLastN(filtered, memorySettings.historyLimit);
+    logger.debug(
+        "History retrieved from entity for sessionId [{}], delta size [{}], size [{}]",
+        sessionId,
+        delta.messages().size(),
+        trimmed.size());
+    return new SessionHistory(
+        new ArrayList<>(trimmed), history.sequenceNumber(), history.tokenUsage());
+  }
+
   /**
    * Fetch the journal for {@code sessionId} starting at {@code fromSequenceNr} and apply the same
    * filter + last-N logic the entity uses, so the caller sees an equivalent slice of history
    * regardless of which path produced it.
    *
+   * <p>With a last-N limit the journal is read tail first, in chunks of growing size, until N
+   * messages pass the filters, so that a long session with a small limit doesn't have to be read
+   * from the start.
+   *
    * <p>Package-private so the fallback can be exercised in isolation by tests without having to
    * stand up a full {@link ComponentClient}.
    */
   SessionHistory fetchHistoryFromJournal(String sessionId, long fromSequenceNr, long toSequenceNr) {
+    Predicate<SessionMessage> filters =
+        MemoryHistoryUtils.compile(
+            memorySettings.memoryFilters, MemoryHistoryUtils.roleLookup(agentRegistry));
+
+    var messages =
+        memorySettings.historyLimit.isPresent()
+            ? readJournalTailFirst(
+                sessionId,
+                fromSequenceNr,
+                toSequenceNr,
+                memorySettings.historyLimit.get(),
+                filters)
+            : readJournal(sessionId, fromSequenceNr, toSequenceNr, filters);
+
+    logger.debug(
+        "History retrieved from journal for sessionId [{}], size [{}]", sessionId, messages.size());
+
+    // The journal-derived history isn't tied to a specific entity sequence number and we don't
+    // accumulate token usage here; downstream callers (the agent runtime) only consume messages.
+    return new SessionHistory(new ArrayList<>(messages), 0L, SessionMessage.TokenUsage.EMPTY);
+  }
+
+  /**
+   * The last {@code n} messages passing the filters, read in chunks from {@code toSequenceNr}
+   * backwards. Each chunk is twice the size of the previous one, so a session with sparse matches
+   * still needs only a logarithmic number of reads.
+   */
+  private List<SessionMessage> readJournalTailFirst(
+      String sessionId,
+      long fromSequenceNr,
+      long toSequenceNr,
+      int n,
+      Predicate<SessionMessage> filters) {
+    var chunks = new ArrayDeque<List<SessionMessage>>();
+    var found = 0;
+    var chunkSize = Math.max(n, MIN_JOURNAL_CHUNK_SIZE);
+    var chunkTo = toSequenceNr;
+    while (found < n && chunkTo >= fromSequenceNr) {
+      var chunkFrom =
+          chunkTo - fromSequenceNr < chunkSize ? fromSequenceNr : chunkTo - chunkSize + 1;
+      var chunk = readJournal(sessionId, chunkFrom, chunkTo, filters);
+      chunks.addFirst(chunk);
+      found += chunk.size();
+      chunkTo = chunkFrom - 1;
+      chunkSize = Math.min(chunkSize * 2, Long.MAX_VALUE / 2);
+    }
+
+    var messages = new ArrayList<SessionMessage>(found);
+    chunks.forEach(messages::addAll);
+    return MemoryHistoryUtils.trimToLastN(messages, Optional.of(n));
+  }
+
+  /** The messages in the journal in {@code [fromSequenceNr, toSequenceNr]} passing the filters. */
+  private List<SessionMessage> readJournal(
+      String sessionId, long fromSequenceNr, long toSequenceNr, Predicate<SessionMessage> filters) {
     var query =
         new EventLogClient.Query(
             SessionMemoryEntity.COMPONENT_ID, sessionId, fromSequenceNr, toSequenceNr);
@@ -191,31 +407,19 @@ public final class SessionMemoryClient implements SessionMemory {
     // The stream is materialized on Akka's dispatcher; join() parks the calling virtual thread,
     // unmounting it from its carrier until the CompletionStage completes.
     // Safe because callers (AgentImpl) invoke this from SdkExecutionContext (virtual threads).
-    List<SessionMessage> messages;
+    // Messages are filtered while streaming, only the kept messages are collected.
     try {
-      messages =
-          eventLogClient
-              .currentEventsForEntity(query)
-              .asJava()
-              .map(envelope -> serializer.fromBytes(envelope.payload()))
-              .collect(sessionMessageCollectPF)
-              .runWith(Sink.seq(), materializer)
-              .toCompletableFuture()
-              .join();
+      return eventLogClient
+          .currentEventsForEntity(query)
+          .asJava()
+          .map(envelope -> serializer.fromBytes(envelope.payload()))
+          .collect(sessionMessageCollectPF)
+          .filter(filters::test)
+          .runWith(Sink.seq(), materializer)
+          .toCompletableFuture()
+          .join();
     } catch (CompletionException e) {
       throw ErrorHandling.unwrapCompletionException(e);
     }
-
-    var filtered =
-        MemoryHistoryUtils.applyFilters(
-            messages, memorySettings.memoryFilters, MemoryHistoryUtils.roleLookup(agentRegistry));
-    var trimmed = MemoryHistoryUtils.trimToLastN(filtered, memorySettings.historyLimit);
-
-    logger.debug(
-        "History retrieved from journal for sessionId [{}], size [{}]", sessionId, trimmed.size());
-
-    // The journal-derived history isn't tied to a specific entity sequence number and we don't
-    // accumulate token usage here; downstream callers (the agent runtime) only consume messages.
-    return new SessionHistory(new ArrayList<>(trimmed), 0L, SessionMessage.TokenUsage.EMPTY);
   }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent;
+
+import akka.annotation.InternalApi;
+import akka.javasdk.agent.SessionMessage;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * INTERNAL API
+ *
+ * <p>The messages of a {@code SessionMemoryEntity.State}: an array backed ring buffer, so that the
+ * oldest message is evicted and any message is read in constant time, with a count of the messages
+ * of each component, so that memory filters can be decided per component instead of per message.
+ * The estimated tokens of each message are kept alongside, so that the window can be limited to a
+ * token budget without estimating the whole window again. Messages added without an estimate are
+ * estimated with the {@link BpeTokenEstimator}.
+ *
+ * <p>Messages are only added last and removed first, other modifications are not supported.
+ */
+@InternalApi
+public final class SessionMessageBuffer extends AbstractList<SessionMessage>
+    implements RandomAccess {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private SessionMessage[] elements;
+  private int[] tokens;
+  private int head;
+  private int size;
+  private long estimatedTokens;
+  private final Map<String, Integer> countByComponent = new HashMap<>();
+
+  public SessionMessageBuffer() {
+    this.elements = new SessionMessage[INITIAL_CAPACITY];
+    this.tokens = new int[INITIAL_CAPACITY];
+  }
+
+  private SessionMessageBuffer(Collection<SessionMessage> messages) {
+    this.elements = new SessionMessage[Math.max(INITIAL_CAPACITY, messages.size())];
+    this.tokens = new int[elements.length];
+    messages.forEach(this::addLast);
+  }
+
+  /** The given messages if already a buffer, otherwise a buffer with a copy of the messages. */
+  public static SessionMessageBuffer from(List<SessionMessage> messages) {
+    if (messages == null) return new SessionMessageBuffer();
+    else if (messages instanceof SessionMessageBuffer buffer) return buffer;
+    else return new SessionMessageBuffer(messages);
+  }
+
+  /** The ids of the components that the messages in the buffer are from. */
+  public Set<String> componentIds() {
+    return countByComponent.keySet();
+  }
+
+  /** The sum of the estimated tokens of the messages in the buffer. */
+  public long estimatedTokens() {
+    return estimatedTokens;
+  }
+
+  @Override
+  public SessionMessage get(int index) {
+    if (index < 0 || index >= size)
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+    return elements[(head + index) % elements.length];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean add(SessionMessage message) {
+    addLast(message);
+    return true;
+  }
+
+  @Override
+  public void addLast(SessionMessage message) {
+    addLast(message, BpeTokenEstimator.INSTANCE.estimateTokens(message));
+  }
+
+  public void addLast(SessionMessage message, int estimatedTokens) {
+    if (size == elements.length) grow();
+    int index = (head + size) % elements.length;
+    elements[index] = message;
+    tokens[index] = estimatedTokens;
+    this.estimatedTokens += estimatedTokens;
+    size++;
+    countByComponent.merge(message.componentId(), 1, Integer::sum);
+    modCount++;
+  }
+
+  @Override
+  public SessionMessage getFirst() {
+    if (size == 0) throw new NoSuchElementException();
+    return elements[head];
+  }
+
+  @Override
+  public SessionMessage removeFirst() {
+    if (size == 0) throw new NoSuchElementException();
+    var message = elements[head];
+    elements[head] = null;
+    estimatedTokens -= tokens[head];
+    head = (head + 1) % elements.length;
+    size--;
+    countByComponent.computeIfPresent(
+        message.componentId(), (id, count) -> count == 1 ? null : count - 1);
+    modCount++;
+    return message;
+  }
+
+  @Override
+  public SessionMessage remove(int index) {
+    if (index != 0)
+      throw new UnsupportedOperationException("Only the first message can be removed");
+    return removeFirst();
+  }
+
+  @Override
+  public void clear() {
+    elements = new SessionMessage[INITIAL_CAPACITY];
+    tokens = new int[INITIAL_CAPACITY];
+    head = 0;
+    size = 0;
+    estimatedTokens = 0;
+    countByComponent.clear();
+    modCount++;
+  }
+
+  private void grow() {
+    var grown = new SessionMessage[elements.length * 2];
+    var grownTokens = new int[grown.length];
+    for (int i = 0; i < size; i++) {
+      grown[i] = elements[(head + i) % elements.length];
+      grownTokens[i] = tokens[(head + i) % elements.length];
+    }
+    elements = grown;
+    tokens = grownTokens;
+    head = 0;
+  }
+}
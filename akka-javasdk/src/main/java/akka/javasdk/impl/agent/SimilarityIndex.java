@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent;
+
+import akka.annotation.InternalApi;
+import akka.javasdk.agent.TextEmbedder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+/**
+ * INTERNAL API
+ *
+ * <p>In-memory vector index of the texts of a {@code SimilarityGuard}, for finding the highest
+ * cosine similarity of a text to any of them without leaving the service.
+ *
+ * <p>The normalized vectors are kept row by row in one float array, so that a search is a scan over
+ * contiguous memory. By default all vectors are scanned, which gives the exact highest similarity.
+ * An approximate index can be requested for large datasets: with {@link #IVF_MIN_VECTORS} or more
+ * vectors they get an inverted file index, the vectors are clustered with spherical k-means,
+ * stored grouped by cluster, and a search only scans the clusters of the nearest centroids. That
+ * is faster, but misses the most similar vector when it was assigned to a cluster that isn't
+ * probed, so the similarity can be lower than the exact one.
+ */
+@InternalApi
+public final class SimilarityIndex {
+
+  static final int IVF_MIN_VECTORS = 1024;
+
+  private static final int KMEANS_ITERATIONS = 8;
+  private static final int KMEANS_SAMPLES_PER_CLUSTER = 64;
+
+  private static final Map<String, SimilarityIndex> indexes = new ConcurrentHashMap<>();
+  private static final Map<String, TextEmbedder> customEmbedders = new ConcurrentHashMap<>();
+
+  private final TextEmbedder embedder;
+  private final int dimensions;
+  private final int size;
+  // the normalized vectors, grouped by cluster when there is an inverted file index
+  private final float[] matrix;
+  // no centroids when all vectors are scanned
+  private final float[][] centroids;
+  // the vectors of cluster i are the rows from clusterStart[i] until clusterStart[i + 1]
+  private final int[] clusterStart;
+  private final int probes;
+
+  /**
+   * The index of the text files in the classpath resource directory, loaded once and shared by the
+   * guardrails using the same directory and embedder.
+   */
+  public static SimilarityIndex forResourceDir(
+      String resourceDir, TextEmbedder embedder, boolean approximate) {
+    return indexes.computeIfAbsent(
+        resourceDir + '|' + embedder.getClass().getName() + '|' + approximate,
+        key -> {
+          var texts = readResourceDir(resourceDir);
+          if (texts.isEmpty())
+            throw new IllegalArgumentException(
+                "No examples found in resource directory [" + resourceDir + "]");
+          return of(texts, embedder, approximate);
+        });
+  }
+
+  /** The embedder with the fully qualified class name, created once. */
+  public static TextEmbedder embedder(String className) {
+    return customEmbedders.computeIfAbsent(className, SimilarityIndex::instantiate);
+  }
+
+  private static TextEmbedder instantiate(String className) {
+    try {
+      return Class.forName(className, true, classLoader())
+          .asSubclass(TextEmbedder.class)
+          .getDeclaredConstructor()
+          .newInstance();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new IllegalArgumentException(
+          "Could not create the text embedder [" + className + "]", e);
+    }
+  }
+
+  /** An index that scans all vectors, for the exact highest similarity. */
+  public static SimilarityIndex of(List<String> texts, TextEmbedder embedder) {
+    return of(texts, embedder, false);
+  }
+
+  /**
+   * An index that, when {@code approximate}, only scans the nearest clusters of large datasets,
+   * trading some recall for speed.
+   */
+  public static SimilarityIndex of(List<String> texts, TextEmbedder embedder, boolean approximate) {
+    var rows = new float[texts.size()][];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = normalized(embedder.embed(texts.get(i)));
+      if (rows[i].length != rows[0].length)
+        throw new IllegalArgumentException(
+            "Text embedder ["
+                + embedder.getClass().getName()
+                + "] returned vectors of different lengths");
+    }
+    return new SimilarityIndex(embedder, rows, approximate);
+  }
+
+  private SimilarityIndex(TextEmbedder embedder, float[][] rows, boolean approximate) {
+    this.embedder = embedder;
+    this.size = rows.length;
+    this.dimensions = size == 0 ? 0 : rows[0].length;
+
+    float[][] ordered = rows;
+    if (approximate && size >= IVF_MIN_VECTORS) {
+      int clusters = (int) Math.sqrt(size);
+      centroids = kMeans(rows, clusters);
+      var assignments = new int[size];
+      clusterStart = new int[clusters + 1];
+      for (int i = 0; i < size; i++) {
+        assignments[i] = nearest(centroids, rows[i]);
+        clusterStart[assignments[i] + 1]++;
+      }
+      for (int c = 0; c < clusters; c++) clusterStart[c + 1] += clusterStart[c];
+      ordered = new float[size][];
+      var next = Arrays.copyOf(clusterStart, clusters);
+      for (int i = 0; i < size; i++) ordered[next[assignments[i]]++] = rows[i];
+      probes = Math.max(2, (clusters + 3) / 4);
+    } else {
+      centroids = new float[0][];
+      clusterStart = new int[] {0, size};
+      probes = 1;
+    }
+
+    matrix = new float[size * dimensions];
+    for (int i = 0; i < size; i++) {
+      System.arraycopy(ordered[i], 0, matrix, i * dimensions, dimensions);
+    }
+  }
+
+  /** Whether only the nearest clusters are scanned, rather than all vectors. */
+  public boolean approximate() {
+    return centroids.length > 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** The highest cosine similarity of the text to the indexed texts, 0 when there are none. */
+  public double maxSimilarity(String text) {
+    if (size == 0) return 0.0;
+    var query = normalized(embedder.embed(text));
+    if (query.length != dimensions)
+      throw new IllegalStateException(
+          "Text embedder ["
+              + embedder.getClass().getName()
+              + "] returned a vector of another length");
+
+    float max = 0f;
+    if (centroids.length == 0) {
+      max = scan(query, 0, size);
+    } else {
+      for (int cluster : nearestClusters(query)) {
+        max = Math.max(max, scan(query, clusterStart[cluster], clusterStart[cluster + 1]));
+      }
+    }
+    // rounding can take the similarity of identical texts slightly above 1
+    return Math.min(1.0, max);
+  }
+
+  private float scan(float[] query, int fromRow, int untilRow) {
+    float max = 0f;
+    for (int row = fromRow; row < untilRow; row++) {
+      max = Math.max(max, dot(query, row * dimensions));
+    }
+    return max;
+  }
+
+  // four independent accumulators, so that the multiply-adds don't wait for each other
+  private float dot(float[] query, int offset) {
+    float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+    int i = 0;
+    int bound = dimensions & ~3;
+    for (; i < bound; i += 4) {
+      s0 += query[i] * matrix[offset + i];
+      s1 += query[i + 1] * matrix[offset + i + 1];
+      s2 += query[i + 2] * matrix[offset + i + 2];
+      s3 += query[i + 3] * matrix[offset + i + 3];
+    }
+    for (; i < dimensions; i++) s0 += query[i] * matrix[offset + i];
+    return (s0 + s1) + (s2 + s3);
+  }
+
+  private int[] nearestClusters(float[] query) {
+    var scores = new float[centroids.length];
+    for (int c = 0; c < centroids.length; c++) scores[c] = dot(centroids[c], query);
+    var nearest = new int[probes];
+    for (int p = 0; p < probes; p++) {
+      int best = 0;
+      for (int c = 1; c < scores.length; c++) if (scores[c] > scores[best]) best = c;
+      nearest[p] = best;
+      scores[best] = Float.NEGATIVE_INFINITY;
+    }
+    return nearest;
+  }
+
+  /** Spherical k-means on a sample of the rows, starting from evenly spread rows. */
+  private static float[][] kMeans(float[][] rows, int clusters) {
+    int step = Math.max(1, rows.length / (clusters * KMEANS_SAMPLES_PER_CLUSTER));
+    var sample = new ArrayList<float[]>();
+    for (int i = 0; i < rows.length; i += step) sample.add(rows[i]);
+
+    int dimensions = rows[0].length;
+    var centroids = new float[clusters][];
+    for (int c = 0; c < clusters; c++) {
+      centroids[c] = rows[(int) ((long) c * rows.length / clusters)].clone();
+    }
+    for (int iteration = 0; iteration < KMEANS_ITERATIONS; iteration++) {
+      var sums = new float[clusters][dimensions];
+      var counts = new int[clusters];
+      for (var row : sample) {
+        int c = nearest(centroids, row);
+        counts[c]++;
+        for (int d = 0; d < dimensions; d++) sums[c][d] += row[d];
+      }
+      for (int c = 0; c < clusters; c++) {
+        // an empty cluster keeps its centroid
+        if (counts[c] > 0) centroids[c] = normalized(sums[c]);
+      }
+    }
+    return centroids;
+  }
+
+  private static int nearest(float[][] centroids, float[] vector) {
+    int best = 0;
+    float bestScore = Float.NEGATIVE_INFINITY;
+    for (int c = 0; c < centroids.length; c++) {
+      float score = dot(centroids[c], vector);
+      if (score > bestScore) {
+        best = c;
+        bestScore = score;
+      }
+    }
+    return best;
+  }
+
+  private static float dot(float[] a, float[] b) {
+    float sum = 0f;
+    for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+    return sum;
+  }
+
+  private static float[] normalized(float[] vector) {
+    double squares = 0.0;
+    for (float v : vector) squares += (double) v * v;
+    var result = vector.clone();
+    if (squares > 0.0) {
+      float scale = (float) (1.0 / Math.sqrt(squares));
+      for (int i = 0; i < result.length; i++) result[i] *= scale;
+    }
+    return result;
+  }
+
+  /** The contents of the files directly in the classpath resource directory, by file name. */
+  static List<String> readResourceDir(String resourceDir) {
+    var dir =
+        resourceDir.endsWith("/")
+            ? resourceDir.substring(0, resourceDir.length() - 1)
+            : resourceDir;
+    var texts = new TreeMap<String, String>();
+    try {
+      var urls = classLoader().getResources(dir);
+      while (urls.hasMoreElements()) {
+        var url = urls.nextElement();
+        switch (url.getProtocol()) {
+          case "file" -> {
+            try (var files = Files.list(Path.of(url.toURI()))) {
+              for (var file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file) && !texts.containsKey(file.getFileName().toString()))
+                  texts.put(file.getFileName().toString(), Files.readString(file));
+              }
+            }
+          }
+          case "jar" -> {
+            var connection = (JarURLConnection) url.openConnection();
+            connection.setUseCaches(false);
+            var prefix = dir + "/";
+            try (var jar = connection.getJarFile()) {
+              for (var entry : (Iterable<JarEntry>) jar.entries()::asIterator) {
+                var name = entry.getName();
+                if (!entry.isDirectory()
+                    && name.startsWith(prefix)
+                    && name.indexOf('/', prefix.length()) == -1) {
+                  var fileName = name.substring(prefix.length());
+                  if (!texts.containsKey(fileName)) {
+                    try (var in = jar.getInputStream(entry)) {
+                      texts.put(fileName, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                  }
+                }
+              }
+            }
+          }
+          default ->
+              throw new IllegalArgumentException(
+                  "Unsupported location [" + url + "] of resource directory [" + resourceDir + "]");
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Could not read the resource directory [" + resourceDir + "]", e);
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException(
+          "Could not read the resource directory [" + resourceDir + "]", e);
+    }
+    return new ArrayList<>(texts.values());
+  }
+
+  private static ClassLoader classLoader() {
+    var contextClassLoader = Thread.currentThread().getContextClassLoader();
+    return contextClassLoader != null ? contextClassLoader : SimilarityIndex.class.getClassLoader();
+  }
+}
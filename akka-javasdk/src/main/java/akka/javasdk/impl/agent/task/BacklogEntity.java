@@ -139,7 +139,7 @@ public final class BacklogEntity extends EventSourcedEntity<BacklogState, Backlo
     if (currentState().closed()) {
       return closedError();
     }
-    if (currentState().unclaimedTaskIds().isEmpty()) {
+    if (!currentState().hasUnclaimedTasks()) {
       return effects().reply(done()); // nothing to cancel
     }
     return effects()
@@ -9,15 +9,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-/** INTERNAL API State of a backlog entity — tracks task references and their claim status. */
+/**
+ * INTERNAL API State of a backlog entity — tracks task references and their claim status.
+ *
+ * <p>The tasks are kept in a {@link BacklogTasks}, so that each transition shares structure with
+ * the previous state instead of copying all tasks. Serialized as a plain map of task id to entry.
+ */
 @InternalApi
 public record BacklogState(String name, Map<String, Entry> tasks, boolean closed) {
 
+  public BacklogState {
+    // e.g. when deserialized
+    tasks = BacklogTasks.from(tasks);
+  }
+
   /** An entry in the backlog: task ID and who has claimed it (if anyone). */
   public record Entry(String taskId, Optional<String> claimedBy) {}
 
   public static BacklogState empty() {
-    return new BacklogState("", Map.of(), false);
+    return new BacklogState("", BacklogTasks.empty(), false);
+  }
+
+  private BacklogTasks backlogTasks() {
+    return (BacklogTasks) tasks;
   }
 
   public boolean isCreated() {
@@ -33,7 +47,8 @@ public record BacklogState(String name, Map<String, Entry> tasks, boolean closed
   }
 
   public boolean isClaimed(String taskId) {
-    return tasks.containsKey(taskId) && tasks.get(taskId).claimedBy().isPresent();
+    var entry = tasks.get(taskId);
+    return entry != null && entry.claimedBy().isPresent();
   }
 
   public Optional<String> claimedBy(String taskId) {
@@ -45,18 +60,16 @@ public record BacklogState(String name, Map<String, Entry> tasks, boolean closed
     return List.copyOf(tasks.values());
   }
 
+  public boolean hasUnclaimedTasks() {
+    return backlogTasks().hasUnclaimed();
+  }
+
   public List<String> unclaimedTaskIds() {
-    return tasks.entrySet().stream()
-        .filter(e -> e.getValue().claimedBy().isEmpty())
-        .map(Map.Entry::getKey)
-        .toList();
+    return backlogTasks().unclaimedTaskIds();
   }
 
   public List<String> claimedTaskIds() {
-    return tasks.entrySet().stream()
-        .filter(e -> e.getValue().claimedBy().isPresent())
-        .map(Map.Entry::getKey)
-        .toList();
+    return backlogTasks().claimedTaskIds();
   }
 
   public BacklogState withName(String name) {
@@ -64,30 +77,26 @@ public record BacklogState(String name, Map<String, Entry> tasks, boolean closed
   }
 
   public BacklogState withTaskAdded(String taskId) {
-    var updated = new java.util.HashMap<>(tasks);
-    updated.put(taskId, new Entry(taskId, Optional.empty()));
-    return new BacklogState(name, Map.copyOf(updated), closed);
+    return withEntry(new Entry(taskId, Optional.empty()));
   }
 
   public BacklogState withTaskClaimed(String taskId, String claimedBy) {
-    var updated = new java.util.HashMap<>(tasks);
-    updated.put(taskId, new Entry(taskId, Optional.of(claimedBy)));
-    return new BacklogState(name, Map.copyOf(updated), closed);
+    return withEntry(new Entry(taskId, Optional.of(claimedBy)));
   }
 
   public BacklogState withTaskReleased(String taskId) {
-    var updated = new java.util.HashMap<>(tasks);
-    updated.put(taskId, new Entry(taskId, Optional.empty()));
-    return new BacklogState(name, Map.copyOf(updated), closed);
+    return withEntry(new Entry(taskId, Optional.empty()));
   }
 
   public BacklogState withUnclaimedRemoved() {
-    var updated = new java.util.HashMap<>(tasks);
-    updated.entrySet().removeIf(e -> e.getValue().claimedBy().isEmpty());
-    return new BacklogState(name, Map.copyOf(updated), closed);
+    return new BacklogState(name, backlogTasks().withUnclaimedRemoved(), closed);
   }
 
   public BacklogState withClosed() {
     return new BacklogState(name, tasks, true);
   }
+
+  private BacklogState withEntry(Entry entry) {
+    return new BacklogState(name, backlogTasks().withEntry(entry), closed);
+  }
 }
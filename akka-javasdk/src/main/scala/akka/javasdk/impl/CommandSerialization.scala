@@ -12,8 +12,12 @@ import scala.util.control.NonFatal
 
 import akka.annotation.InternalApi
 import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.impl.serialization.ProtobufSerializer
 import akka.javasdk.impl.serialization.Serializer
 import akka.runtime.sdk.spi.BytesPayload
+import com.fasterxml.jackson.databind.ObjectReader
+import com.google.protobuf.GeneratedMessageV3
+import com.google.protobuf.Parser
 
 /**
  * INTERNAL API
@@ -24,78 +28,227 @@ object CommandSerialization {
   // Content type used by autonomous agent delegation for tool call arguments
   private val UntypedJsonObjectContentType = JsonSerializer.JsonContentTypePrefix + "object"
 
-  def deserializeComponentClientCommand(
-      method: Method,
-      command: BytesPayload,
-      serializer: Serializer): Option[AnyRef] = {
+  /**
+   * INTERNAL API
+   *
+   * Decodes the command payload for one specific command handler. Created once per handler, so that inspecting the
+   * parameter type and looking up the Jackson reader or protobuf parser for it is done up front rather than for each
+   * command.
+   */
+  @InternalApi
+  abstract class PayloadDecoder {
+
+    /**
+     * @return
+     *   the deserialized command, `null` for a command handler without parameter
+     */
+    def decode(command: BytesPayload): AnyRef
+  }
+
+  def payloadDecoder(method: Method, serializer: Serializer): PayloadDecoder = {
     // special cased component client calls, lets json commands through all the way
     val parameterTypes = method.getGenericParameterTypes
-    if (parameterTypes.isEmpty) None
-    else if (parameterTypes.size > 1)
-      throw new IllegalStateException(
-        s"Passing more than one parameter to the command handler [${method.getDeclaringClass.getName}.${method.getName}] is not supported, parameter types: [${parameterTypes.mkString}]")
+    if (parameterTypes.isEmpty) NoParameterDecoder
+    else if (parameterTypes.size > 1) new MultipleParametersDecoder(method)
     else {
       // we used to dispatch based on the type, since that is how it works in protobuf for eventing
       // but here we have a concrete command name, and can pick up the expected serialized type from there
+      parameterTypes.head match {
+        case paramClass: Class[_] if classOf[GeneratedMessageV3].isAssignableFrom(paramClass) =>
+          new ProtobufParameterDecoder(method, paramClass.asInstanceOf[Class[GeneratedMessageV3]], serializer)
+        case paramClass: Class[_] =>
+          new JsonParameterDecoder(method, paramClass, serializer)
+        case parameterizedType: ParameterizedType =>
+          val rawType = parameterizedType.getRawType.asInstanceOf[Class[_]]
+          if (classOf[java.util.Collection[_]].isAssignableFrom(rawType)) {
+            parameterizedType.getActualTypeArguments.head match {
+              case elementType: Class[_] =>
+                new CollectionParameterDecoder(
+                  method,
+                  elementType.asInstanceOf[Class[AnyRef]],
+                  rawType.asInstanceOf[Class[util.Collection[AnyRef]]],
+                  serializer)
+              case _ =>
+                new UnsupportedParameterDecoder(
+                  method,
+                  s"Command handler [${method.getDeclaringClass.getName}.${method.getName}] accepts a parameter that is a collection with a generic type inside, this is not supported.")
+            }
+          } else
+            new UnsupportedParameterDecoder(
+              method,
+              s"Command handler [${method.getDeclaringClass.getName}.${method.getName}] handler accepts a parameter that is a generic type [$parameterizedType], this is not supported.")
+        case other =>
+          new UnsupportedParameterDecoder(
+            method,
+            s"Command handler [${method.getDeclaringClass.getName}.${method.getName}] accepts a parameter of type [$other], this is not supported.")
+      }
+    }
+  }
+
+  def deserializeComponentClientCommand(
+      method: Method,
+      command: BytesPayload,
+      serializer: Serializer): Option[AnyRef] =
+    if (method.getParameterCount == 0) None
+    else Some(payloadDecoder(method, serializer).decode(command))
+
+  private object NoParameterDecoder extends PayloadDecoder {
+    override def decode(command: BytesPayload): AnyRef = null
+  }
+
+  private final class MultipleParametersDecoder(method: Method) extends PayloadDecoder {
+    override def decode(command: BytesPayload): AnyRef =
+      throw new IllegalStateException(
+        s"Passing more than one parameter to the command handler [${method.getDeclaringClass.getName}.${method.getName}] is not supported, parameter types: [${method.getGenericParameterTypes.mkString}]")
+  }
 
+  /**
+   * Wraps any failure to decode the parameter with the expected type and handler.
+   */
+  private abstract class SingleParameterDecoder(method: Method) extends PayloadDecoder {
+    private val parameterTypeName = method.getGenericParameterTypes.head.getTypeName
+
+    final override def decode(command: BytesPayload): AnyRef =
       try {
-        parameterTypes.head match {
-          case paramClass: Class[_] =>
-            // When the payload is an untyped JSON object (e.g. from autonomous agent delegation where
-            // the LLM produces tool call arguments as a JSON object wrapping the method parameter),
-            // unwrap the single property value to match the expected parameter type.
-            if (command.contentType == UntypedJsonObjectContentType) {
-              Some(unwrapSingleParameter(method, command, paramClass, serializer))
-            } else {
-              Some(serializer.fromBytes(paramClass, command).asInstanceOf[AnyRef])
-            }
-          case parameterizedType: ParameterizedType =>
-            if (classOf[java.util.Collection[_]]
-                .isAssignableFrom(parameterizedType.getRawType.asInstanceOf[Class[_]])) {
-              val elementType = parameterizedType.getActualTypeArguments.head match {
-                case typeParamClass: Class[_] => typeParamClass
-                case _ =>
-                  throw new RuntimeException(
-                    s"Command handler [${method.getDeclaringClass.getName}.${method.getName}] accepts a parameter that is a collection with a generic type inside, this is not supported.")
-              }
-              Some(
-                serializer.json.fromBytes(
-                  elementType.asInstanceOf[Class[AnyRef]],
-                  parameterizedType.getRawType.asInstanceOf[Class[util.Collection[AnyRef]]],
-                  command))
-            } else
-              throw new RuntimeException(
-                s"Command handler [${method.getDeclaringClass.getName}.${method.getName}] handler accepts a parameter that is a generic type [$parameterizedType], this is not supported.")
-        }
+        decodeParameter(command)
       } catch {
         case NonFatal(ex) =>
-          throw new IllegalArgumentException(
-            s"Could not deserialize message of type [${command.contentType}] to type [${parameterTypes.head.getTypeName}] " +
-            s"as expected by method [${method.getDeclaringClass.getName}.${method.getName}]",
-            ex)
+          throw deserializationFailed(command, parameterTypeName, method.getDeclaringClass, method.getName, ex)
       }
-    }
+
+    protected def decodeParameter(command: BytesPayload): AnyRef
   }
 
+  /**
+   * A parameter of a concrete class, which may also be passed as an untyped JSON object.
+   */
+  private abstract class ClassParameterDecoder(method: Method, serializer: Serializer)
+      extends SingleParameterDecoder(method) {
+    private val parameterName = method.getParameters.head.getName
+
+    final override protected def decodeParameter(command: BytesPayload): AnyRef =
+      // When the payload is an untyped JSON object (e.g. from autonomous agent delegation where
+      // the LLM produces tool call arguments as a JSON object wrapping the method parameter),
+      // unwrap the single property value to match the expected parameter type.
+      if (command.contentType == UntypedJsonObjectContentType)
+        unwrapSingleParameter(
+          unwrapReader,
+          parameterName,
+          command,
+          serializer,
+          method.getDeclaringClass,
+          method.getName)
+      else
+        decodeTyped(command)
+
+    protected def unwrapReader: ObjectReader
+
+    protected def decodeTyped(command: BytesPayload): AnyRef
+  }
+
+  private final class JsonParameterDecoder(method: Method, paramClass: Class[_], serializer: Serializer)
+      extends ClassParameterDecoder(method, serializer) {
+    private val classDecoder = serializer.json.classDecoderFor(paramClass)
+
+    override protected def unwrapReader: ObjectReader = classDecoder.reader
+
+    override protected def decodeTyped(command: BytesPayload): AnyRef =
+      serializer.json.fromBytes(classDecoder, paramClass, command).asInstanceOf[AnyRef]
+  }
+
+  private final class ProtobufParameterDecoder(
+      method: Method,
+      paramClass: Class[GeneratedMessageV3],
+      serializer: Serializer)
+      extends ClassParameterDecoder(method, serializer) {
+    private val parser = paramClass.getMethod("parser").invoke(null).asInstanceOf[Parser[GeneratedMessageV3]]
+
+    override protected lazy val unwrapReader: ObjectReader = serializer.objectMapper.readerFor(paramClass)
+
+    override protected def decodeTyped(command: BytesPayload): AnyRef =
+      if (serializer.isProtobuf(command))
+        parser.parseFrom(command.bytes.toArrayUnsafe())
+      else if (serializer.isJson(command))
+        ProtobufSerializer.fromBytesAsJson(paramClass, command)
+      else
+        throw new IllegalArgumentException(
+          s"Expected protobuf message matching generated class [$paramClass] but payload has type [${command.contentType}]")
+  }
+
+  private final class CollectionParameterDecoder(
+      method: Method,
+      elementType: Class[AnyRef],
+      collectionType: Class[util.Collection[AnyRef]],
+      serializer: Serializer)
+      extends SingleParameterDecoder(method) {
+    private val collectionReader = serializer.json.collectionReaderFor(elementType, collectionType)
+
+    override protected def decodeParameter(command: BytesPayload): AnyRef =
+      serializer.json.readCollection[AnyRef, util.Collection[AnyRef]](elementType, collectionReader, command)
+  }
+
+  private final class UnsupportedParameterDecoder(method: Method, message: String)
+      extends SingleParameterDecoder(method) {
+    override protected def decodeParameter(command: BytesPayload): AnyRef =
+      throw new RuntimeException(message)
+  }
+
+  /**
+   * Deserialize the command for a command handler with a single, non-generic, parameter. Used by the generated command
+   * routers, where the parameter type and name are known up front.
+   */
+  def deserializeCommandParameter(
+      parameterType: Class[_],
+      parameterName: String,
+      command: BytesPayload,
+      serializer: Serializer,
+      componentClass: Class[_],
+      methodName: String): AnyRef =
+    try {
+      if (command.contentType == UntypedJsonObjectContentType)
+        unwrapSingleParameter(
+          serializer.json.classDecoderFor(parameterType).reader,
+          parameterName,
+          command,
+          serializer,
+          componentClass,
+          methodName)
+      else
+        serializer.fromBytes(parameterType, command).asInstanceOf[AnyRef]
+    } catch {
+      case NonFatal(ex) =>
+        throw deserializationFailed(command, parameterType.getTypeName, componentClass, methodName, ex)
+    }
+
+  private def deserializationFailed(
+      command: BytesPayload,
+      typeName: String,
+      componentClass: Class[_],
+      methodName: String,
+      cause: Throwable): IllegalArgumentException =
+    new IllegalArgumentException(
+      s"Could not deserialize message of type [${command.contentType}] to type [$typeName] " +
+      s"as expected by method [${componentClass.getName}.$methodName]",
+      cause)
+
   /**
    * Unwraps a single property from a JSON object payload, matching the ToolExecutor pattern. The JSON from LLM tool
    * calls is always an object like {"paramName": value}, where paramName matches the method parameter name.
    */
   private def unwrapSingleParameter(
-      method: Method,
+      reader: ObjectReader,
+      paramName: String,
       command: BytesPayload,
-      paramClass: Class[_],
-      serializer: Serializer): AnyRef = {
-    val mapper = serializer.objectMapper
-    val jsonNode = mapper.readTree(command.bytes.toArrayUnsafe())
-    val paramName = method.getParameters.head.getName
+      serializer: Serializer,
+      componentClass: Class[_],
+      methodName: String): AnyRef = {
+    val jsonNode = serializer.objectMapper.readTree(command.bytes.toArrayUnsafe())
     val valueNode = jsonNode.get(paramName)
     if (valueNode == null) {
       throw new IllegalArgumentException(
         s"JSON object does not contain expected property [$paramName] " +
-        s"for method [${method.getDeclaringClass.getName}.${method.getName}]")
+        s"for method [${componentClass.getName}.$methodName]")
     }
-    val javaType = mapper.getTypeFactory.constructType(paramClass)
-    mapper.treeToValue(valueNode, javaType).asInstanceOf[AnyRef]
+    reader.readValue[AnyRef](valueNode)
   }
 }
@@ -20,8 +20,21 @@ private[impl] object ComponentDescriptor {
     ComponentDescriptorFactory.getFactoryFor(component).buildDescriptorFor(component, serializer)
 
   def apply(methods: Map[String, MethodInvoker]): ComponentDescriptor = {
-    new ComponentDescriptor(methods)
+    new ComponentDescriptor(methods, None)
+  }
+
+  def apply(
+      methods: Map[String, MethodInvoker],
+      generatedRouter: Option[GeneratedCommandRouter[AnyRef]]): ComponentDescriptor = {
+    new ComponentDescriptor(methods, generatedRouter)
   }
 }
 
-private[akka] final case class ComponentDescriptor private (methodInvokers: Map[String, MethodInvoker])
+/**
+ * @param generatedRouter
+ *   command router generated by the annotation processor, when available it is used instead of the method invokers to
+ *   handle commands
+ */
+private[akka] final case class ComponentDescriptor private (
+    methodInvokers: Map[String, MethodInvoker],
+    generatedRouter: Option[GeneratedCommandRouter[AnyRef]])
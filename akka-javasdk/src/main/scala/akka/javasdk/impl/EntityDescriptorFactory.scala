@@ -23,17 +23,17 @@ private[impl] object EntityDescriptorFactory extends ComponentDescriptorFactory
     val commandHandlerMethods = if (classOf[EventSourcedEntity[_, _]].isAssignableFrom(component)) {
       component.getMethods.collect {
         case method if isCommandHandlerCandidate[EventSourcedEntity.Effect[_]](method) =>
-          method.getName.capitalize -> MethodInvoker(method)
+          method.getName.capitalize -> MethodInvoker(method, serializer)
       }
     } else if (classOf[KeyValueEntity[_]].isAssignableFrom(component)) {
       component.getMethods.collect {
         case method if isCommandHandlerCandidate[KeyValueEntity.Effect[_]](method) =>
-          method.getName.capitalize -> MethodInvoker(method)
+          method.getName.capitalize -> MethodInvoker(method, serializer)
       }
     } else if (classOf[Workflow[_]].isAssignableFrom(component)) {
       component.getMethods.collect {
         case method if isCommandHandlerCandidate[Workflow.Effect[_]](method) =>
-          method.getName.capitalize -> MethodInvoker(method)
+          method.getName.capitalize -> MethodInvoker(method, serializer)
       }
     } else {
 
@@ -42,6 +42,9 @@ private[impl] object EntityDescriptorFactory extends ComponentDescriptorFactory
         s"Unsupported component type: ${component.getName}. Supported types are: EventSourcedEntity, ValueEntity, Workflow")
     }
 
-    ComponentDescriptor(commandHandlerMethods.toMap)
+    val methodInvokers = commandHandlerMethods.toMap
+    val generatedRouter =
+      GeneratedCommandRouters.load(component, methodInvokers.map { case (name, invoker) => name -> invoker.method })
+    ComponentDescriptor(methodInvokers, generatedRouter)
   }
 }
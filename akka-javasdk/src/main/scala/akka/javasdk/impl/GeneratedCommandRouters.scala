@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.lang.reflect.Method
+
+import scala.jdk.CollectionConverters._
+
+import akka.annotation.InternalApi
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.BytesPayload
+import org.slf4j.LoggerFactory
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[impl] object GeneratedCommandRouters {
+
+  private val log = LoggerFactory.getLogger(getClass)
+
+  /**
+   * Looks up the command router generated by the annotation processor for the component, if any. A generated router
+   * that does not cover exactly the command handlers found through reflection, with the same parameter types, is left
+   * out, since that means it is stale (for example after an incremental compile without annotation processing),
+   * reflection is used instead. So is a generated router that can't be loaded.
+   */
+  def load(component: Class[_], commandHandlers: Map[String, Method]): Option[GeneratedCommandRouter[AnyRef]] = {
+    val routerClassName = routerClassNameFor(component)
+    try {
+      val routerClass = Class.forName(routerClassName, true, component.getClassLoader)
+      val router = routerClass.getDeclaredConstructor().newInstance().asInstanceOf[GeneratedCommandRouter[AnyRef]]
+      val generatedSignatures = router.commandHandlers().asScala.map { case (commandName, parameterTypes) =>
+        commandName -> parameterTypes.asScala.toList
+      }.toMap
+      val signatures = commandHandlers.map { case (commandName, method) =>
+        commandName -> method.getParameterTypes.toList
+      }
+      if (generatedSignatures == signatures) {
+        log.debug("Using generated command router [{}] for [{}]", routerClassName, component.getName)
+        Some(router)
+      } else {
+        log.warn(
+          "Generated command router [{}] does not match the command handlers of [{}], falling back to reflection. " +
+          "Generated for [{}], found [{}].",
+          routerClassName,
+          component.getName,
+          render(generatedSignatures),
+          render(signatures))
+        None
+      }
+    } catch {
+      case _: ClassNotFoundException => None
+      case e @ (_: ReflectiveOperationException | _: LinkageError | _: ClassCastException) =>
+        log.warn(
+          "Generated command router [{}] for [{}] could not be loaded, falling back to reflection.",
+          routerClassName,
+          component.getName,
+          e)
+        None
+    }
+  }
+
+  private def render(signatures: Map[String, List[Class[_]]]): String =
+    signatures.toSeq.sortBy(_._1).map { case (commandName, parameterTypes) =>
+      parameterTypes.map(_.getName).mkString(s"$commandName(", ", ", ")")
+    }.mkString(", ")
+
+  def routerClassNameFor(component: Class[_]): String = {
+    val packageName = component.getPackageName
+    val packagePrefix = if (packageName.isEmpty) "" else packageName + "."
+    packagePrefix + component.getName.substring(packagePrefix.length).replace('$', '_') +
+    GeneratedCommandRouter.CLASS_NAME_SUFFIX
+  }
+
+}
+
+/**
+ * INTERNAL API
+ *
+ * Decodes the command payloads for a generated command router, with the same semantics as
+ * [[CommandSerialization.deserializeComponentClientCommand]].
+ */
+@InternalApi
+private[impl] final class GeneratedCommandDecoder(
+    componentClass: Class[_],
+    commandNames: Set[String],
+    serializer: Serializer)
+    extends GeneratedCommandRouter.CommandDecoder {
+
+  override def decode[T](
+      command: BytesPayload,
+      parameterType: Class[T],
+      methodName: String,
+      parameterName: String): T =
+    CommandSerialization
+      .deserializeCommandParameter(parameterType, parameterName, command, serializer, componentClass, methodName)
+      .asInstanceOf[T]
+
+  override def handlerNotFound(commandName: String): RuntimeException =
+    new HandlerNotFoundException("command", commandName, componentClass, commandNames)
+}
@@ -4,31 +4,77 @@
 
 package akka.javasdk.impl
 
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
 import java.lang.reflect.Method
 
 import akka.annotation.InternalApi
-import akka.javasdk.impl.ErrorHandling.unwrapInvocationTargetExceptionCatcher
+import akka.javasdk.impl.CommandSerialization.PayloadDecoder
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.BytesPayload
 
 /**
  * INTERNAL API
  */
 @InternalApi
-private[impl] final case class MethodInvoker(method: Method) {
+private[impl] object MethodInvoker {
+
+  private val lookup = MethodHandles.lookup()
+
+  /**
+   * Handle for the method with the component instance as first parameter, adapted to an all `Object` signature (boxing
+   * primitives, `null` for `void`) so that it can always be called with `invokeExact`.
+   */
+  private def genericMethodHandle(method: Method): MethodHandle =
+    lookup.unreflect(method).asType(MethodType.genericMethodType(method.getParameterCount + 1))
+
+  def apply(method: Method): MethodInvoker =
+    new MethodInvoker(method, None)
+
+  /**
+   * For command handlers, with the decoder for the command payload created up front.
+   */
+  def apply(method: Method, serializer: Serializer): MethodInvoker =
+    new MethodInvoker(method, Some(CommandSerialization.payloadDecoder(method, serializer)))
+
+}
+
+/**
+ * INTERNAL API
+ *
+ * The method is bound to a method handle once, when the component descriptor is created, instead of being invoked
+ * reflectively for each call, which allows the JIT to inline the user handler.
+ */
+@InternalApi
+private[impl] final case class MethodInvoker(method: Method, payloadDecoder: Option[PayloadDecoder]) {
+
+  private val methodHandle: MethodHandle = MethodInvoker.genericMethodHandle(method)
+
+  private val arityZero = method.getParameterCount == 0
+
+  private val commandDecoder: PayloadDecoder = payloadDecoder.orNull
 
   /**
    * To invoke methods with arity zero.
    */
-  def invoke(componentInstance: AnyRef): AnyRef = {
-    try method.invoke(componentInstance)
-    catch unwrapInvocationTargetExceptionCatcher
-  }
+  def invoke(componentInstance: AnyRef): AnyRef =
+    methodHandle.invokeExact(componentInstance): AnyRef
 
   /**
    * To invoke a methods with a deserialized payload
    */
-  def invokeDirectly(componentInstance: AnyRef, payload: AnyRef): AnyRef = {
-    try method.invoke(componentInstance, payload)
-    catch unwrapInvocationTargetExceptionCatcher
-  }
+  def invokeDirectly(componentInstance: AnyRef, payload: AnyRef): AnyRef =
+    methodHandle.invokeExact(componentInstance, payload): AnyRef
+
+  /**
+   * To invoke a command handler with a serialized command, only for invokers created with a serializer
+   */
+  def invokeCommand(componentInstance: AnyRef, command: BytesPayload): AnyRef =
+    if (arityZero) invoke(componentInstance)
+    else if (commandDecoder ne null) invokeDirectly(componentInstance, commandDecoder.decode(command))
+    else
+      throw new IllegalStateException(
+        s"No payload decoder for [${method.getDeclaringClass.getName}.${method.getName}]")
 
 }
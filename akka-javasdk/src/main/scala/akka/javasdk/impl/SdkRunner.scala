@@ -49,6 +49,7 @@ import akka.javasdk.agent.Agent
 import akka.javasdk.agent.AgentContext
 import akka.javasdk.agent.AgentRegistry
 import akka.javasdk.agent.ModelProvider
+import akka.javasdk.agent.PromptTemplate
 import akka.javasdk.agent.autonomous.AutonomousAgent
 import akka.javasdk.annotations.Component
 import akka.javasdk.annotations.GrpcEndpoint
@@ -70,12 +71,17 @@ import akka.javasdk.impl.Sdk.StartupContext
 import akka.javasdk.impl.SdkRunner.extractSpiSettings
 import akka.javasdk.impl.agent.AgentImpl
 import akka.javasdk.impl.agent.AgentImpl.AgentContextImpl
+import akka.javasdk.impl.agent.AgentMetrics
 import akka.javasdk.impl.agent.AgentRegistryImpl
 import akka.javasdk.impl.agent.AutonomousAgentImpl
 import akka.javasdk.impl.agent.FunctionTools
 import akka.javasdk.impl.agent.GuardrailProvider
+import akka.javasdk.impl.agent.ModelCallScheduler
 import akka.javasdk.impl.agent.OverrideModelProvider
+import akka.javasdk.impl.agent.PromptTemplateCache
 import akka.javasdk.impl.agent.PromptTemplateClient
+import akka.javasdk.impl.agent.SemanticResponseCache
+import akka.javasdk.impl.agent.ToolResultCache
 import akka.javasdk.impl.agent.autonomous.AgentDefinitionImpl
 import akka.javasdk.impl.agent.autonomous.CapabilityConverter
 import akka.javasdk.impl.agent.autonomous.capability.TaskAcceptanceImpl
@@ -555,6 +561,26 @@ private final class Sdk(
 
   private lazy val overrideModelProvider = new OverrideModelProvider
 
+  private lazy val promptTemplateCache =
+    PromptTemplateCache(applicationConfig.getConfig("akka.javasdk.agent.prompt-template-cache"), sdkMeter)
+
+  AgentMetrics.get(system).init(sdkMeter)
+
+  // results of @CacheToolResult tools, shared by all agents on this node
+  private lazy val toolResultCache = new ToolResultCache(sdkMeter)
+
+  // model responses of agents with a semantic response cache, shared by all agents on this node
+  private lazy val responseCache =
+    SemanticResponseCache(applicationConfig.getConfig("akka.javasdk.agent.response-cache"), sdkMeter)
+
+  // model requests of agents, scheduled per model provider and model on this node
+  private lazy val modelCallScheduler =
+    ModelCallScheduler(
+      applicationConfig.getConfig("akka.javasdk.agent.model-call-scheduler"),
+      sdkMeter,
+      system.scheduler,
+      sdkExecutionContext)
+
   // validate service classes before instantiating
   private val validation = componentClasses.foldLeft(Valid.instance().asInstanceOf[Validation]) {
     case (validations, cls) =>
@@ -570,7 +596,7 @@ private final class Sdk(
       invalid.throwFailureSummary()
   }
 
-  private val guardrailProvider = new GuardrailProvider(system, applicationConfig)
+  private val guardrailProvider = new GuardrailProvider(system, applicationConfig, sdkMeter)
   try {
     guardrailProvider.validate()
   } catch {
@@ -776,7 +802,10 @@ private final class Sdk(
                       factoryContext.publishToTopic.apply(serializer.toBytes(msg))
                     }
                   }
-              })
+              },
+            // a changed prompt template must not be served from the cache of this node
+            if (clz == classOf[PromptTemplate]) () => promptTemplateCache.invalidate(factoryContext.entityId)
+            else () => ())
         }
         eventSourcedEntityDescriptors :+=
           new EventSourcedEntityDescriptor(
@@ -1014,6 +1043,7 @@ private final class Sdk(
             agentRegistry,
             system,
             agentDefinition,
+            toolResultCache,
             instructions = agentDefinition.instructions,
             modelProvider = spiModelProvider,
             toolDescriptors = spiToolDescriptors,
@@ -1047,6 +1077,9 @@ private final class Sdk(
             guardrailEnabledForComponent.getOrElse(guardrailName, Set.empty) + componentId)
         }
 
+        // shared by all agent instances, rather than created for each session
+        val componentDescriptor = ComponentDescriptor.descriptorFor(agentClass, serializer)
+
         val instanceFactory: SpiAgent.FactoryContext => SpiAgent = { factoryContext =>
           new AgentImpl(
             componentId,
@@ -1061,9 +1094,9 @@ private final class Sdk(
             sdkExecutionContext,
             sdkTracerFactory,
             serializer,
-            ComponentDescriptor.descriptorFor(agentClass, serializer),
+            componentDescriptor,
             regionInfo,
-            telemetryContext => new PromptTemplateClient(componentClient(telemetryContext)),
+            telemetryContext => new PromptTemplateClient(componentClient(telemetryContext), promptTemplateCache),
             telemetryContext => componentClient(telemetryContext),
             overrideModelProvider,
             dependencyProviderOpt,
@@ -1071,7 +1104,10 @@ private final class Sdk(
             applicationConfig,
             eventLogClient,
             agentRegistry,
-            system)
+            system,
+            toolResultCache,
+            responseCache,
+            modelCallScheduler)
         }
 
         agentDescriptors :+=
@@ -20,7 +20,7 @@ private[impl] object TimedActionDescriptorFactory extends ComponentDescriptorFac
     // getMethods (not getDeclaredMethods) so command handlers inherited from a base class are included
     val invokers = component.getMethods.collect {
       case method if isCommandHandlerCandidate[TimedAction.Effect](method) =>
-        method.getName.capitalize -> MethodInvoker(method)
+        method.getName.capitalize -> MethodInvoker(method, serializer)
     }.toMap
 
     ComponentDescriptor(invokers)
@@ -26,7 +26,7 @@ private[impl] object AgentDescriptorFactory extends ComponentDescriptorFactory {
         case method
             if isCommandHandlerCandidate[Agent.Effect[_]](method) || isCommandHandlerCandidate[Agent.StreamEffect](
               method) =>
-          method.getName.capitalize -> MethodInvoker(method)
+          method.getName.capitalize -> MethodInvoker(method, serializer)
       }
     } else {
 
@@ -26,6 +26,7 @@ import akka.javasdk.agent.ImageLoader
 import akka.javasdk.agent.MemoryProvider
 import akka.javasdk.agent.ModelProvider
 import akka.javasdk.agent.RemoteMcpTools
+import akka.javasdk.agent.ResponseCacheProvider
 import akka.javasdk.agent.UserMessage
 import akka.javasdk.impl.agent.BaseAgentEffectBuilder.PrimaryEffectImpl
 import akka.javasdk.impl.agent.BaseAgentEffectBuilder.RequestModel
@@ -55,7 +56,8 @@ private[javasdk] object BaseAgentEffectBuilder {
         memoryProvider = MemoryProvider.fromConfig(),
         toolInstancesOrClasses = Seq.empty,
         mcpTools = Seq.empty,
-        contentLoader = None)
+        contentLoader = None,
+        responseCache = ResponseCacheProvider.none())
   }
 
   sealed trait SystemMessage
@@ -74,7 +76,8 @@ private[javasdk] object BaseAgentEffectBuilder {
       memoryProvider: MemoryProvider,
       toolInstancesOrClasses: Seq[AnyRef],
       mcpTools: Seq[RemoteMcpTools],
-      contentLoader: Option[ContentLoader])
+      contentLoader: Option[ContentLoader],
+      responseCache: ResponseCacheProvider = ResponseCacheProvider.none())
       extends PrimaryEffectImpl {
 
     def withProvider(provider: ModelProvider): RequestModel =
@@ -83,6 +86,9 @@ private[javasdk] object BaseAgentEffectBuilder {
     def withMemory(provider: MemoryProvider): RequestModel =
       copy(memoryProvider = provider)
 
+    def withResponseCache(provider: ResponseCacheProvider): RequestModel =
+      copy(responseCache = provider)
+
     def withContentLoader(loader: ContentLoader): RequestModel =
       copy(contentLoader = Some(loader))
 
@@ -194,6 +200,11 @@ private[javasdk] final class BaseAgentEffectBuilder[Reply]
     this
   }
 
+  override def responseCache(provider: ResponseCacheProvider): Builder = {
+    updateRequestModel(_.withResponseCache(provider))
+    this
+  }
+
   override def mcpTools(tools: RemoteMcpTools, moreTools: RemoteMcpTools*): Builder = {
     updateRequestModel(_.addMcpTools(tools +: moreTools))
     this
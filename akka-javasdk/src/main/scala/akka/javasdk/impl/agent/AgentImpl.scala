@@ -7,6 +7,7 @@ package akka.javasdk.impl.agent
 import java.net.URI
 import java.time.Instant
 import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
 
 import scala.annotation.nowarn
 import scala.annotation.tailrec
@@ -78,6 +79,7 @@ import akka.runtime.sdk.spi.SpiAgent.ToolCallExecutionFailure
 import akka.runtime.sdk.spi.SpiAgent.ToolCallLimitReachedFailure
 import akka.runtime.sdk.spi.SpiAgent.UnsupportedFeatureFailure
 import akka.runtime.sdk.spi.SpiAgent.{ AgentException => SpiAgentException }
+import akka.runtime.sdk.spi.SpiJsonSchema.JsonSchemaDataType
 import akka.runtime.sdk.spi.SpiMetadata
 import akka.stream.Materializer
 import akka.stream.SystemMaterializer
@@ -97,6 +99,15 @@ import org.slf4j.MDC
 private[impl] object AgentImpl {
   private val log = LoggerFactory.getLogger(classOf[AgentImpl])
 
+  // derived from the class only, so resolved once rather than for each request to the model
+  private val responseSchemas: ClassValue[JsonSchemaDataType] = new ClassValue[JsonSchemaDataType] {
+    override def computeValue(responseType: Class[_]): JsonSchemaDataType = JsonSchema.jsonSchemaFor(responseType)
+  }
+
+  private val agentRoles: ClassValue[Option[String]] = new ClassValue[Option[String]] {
+    override def computeValue(agentClass: Class[_]): Option[String] = Reflect.readAgentRole(agentClass)
+  }
+
   private[impl] class AgentContextImpl(
       override val sessionId: String,
       override val selfRegion: String,
@@ -621,12 +632,16 @@ private[impl] final class AgentImpl(
     config: Config,
     eventLogClient: EventLogClient,
     agentRegistry: AgentRegistry,
-    _system: ActorSystem[_])
+    _system: ActorSystem[_],
+    toolResultCache: ToolResultCache,
+    responseCache: SemanticResponseCache,
+    modelCallScheduler: ModelCallScheduler)
     extends SpiAgent {
   import AgentImpl._
 
   implicit val system: ActorSystem[_] = _system
   private val materializer: Materializer = SystemMaterializer(system).materializer
+  private val metrics = AgentMetrics.get(system).forAgent(componentId)
 
   // Router only for request-based agents (not autonomous)
   private lazy val router: ReflectiveAgentRouter[Agent] = {
@@ -636,7 +651,10 @@ private[impl] final class AgentImpl(
       serializer)
   }
 
-  override def handleCommand(command: SpiAgent.Command): Future[SpiAgent.Effect] =
+  override def handleCommand(command: SpiAgent.Command): Future[SpiAgent.Effect] = {
+    // the model request effect is returned once the scheduler has granted the request
+    var modelCallTicket: Option[ModelCallScheduler.Ticket] = None
+
     Future {
 
       val telemetryContext = Option(command.telemetryContext)
@@ -684,6 +702,13 @@ private[impl] final class AgentImpl(
 
         primaryEffect match {
           case req: RequestModel =>
+            // the request guardrails that run in the service start before the prompt template, session history and
+            // tools are fetched, instead of adding their latency after that
+            val requestGuardrails =
+              if (req.userMessage.isTextOnly)
+                guardrails.speculativeModelRequestGuardrails(req.userMessage.text())(sdkExecutionContext)
+              else guardrails.modelRequestGuardrails
+
             val systemMessage = req.systemMessage match {
               case ConstantSystemMessage(message) => message
               case template: TemplateSystemMessage =>
@@ -691,10 +716,12 @@ private[impl] final class AgentImpl(
             }
             val modelProvider = overrideModelProvider.getModelProviderForAgent(componentId).getOrElse(req.modelProvider)
             val spiModelProvider = toSpiModelProvider(modelProvider)
-            val metadata = MetadataImpl.toSpi(req.replyMetadata)
-            val sessionMemoryClient = deriveSessionMemoryClient(req.memoryProvider, telemetryContext)
-            val additionalContext = toSpiContextMessages(sessionMemoryClient.getHistory(sessionId))
-            val mcpToolEndpoints = toSpiMcpEndpoints(req.mcpTools)
+            val spiMetadata = MetadataImpl.toSpi(req.replyMetadata)
+            val sessionMemoryClient =
+              // the summarizer of a compaction gets the history as input, its own turn must not end up in the session
+              if (metadata.has(SessionMemoryClient.COMPACTION_METADATA_KEY))
+                deriveSessionMemoryClient(MemoryProvider.none(), telemetryContext)
+              else deriveSessionMemoryClient(req.memoryProvider, telemetryContext)
 
             val allToolClasses =
               agent.getClass +: req.toolInstancesOrClasses.map {
@@ -718,35 +745,118 @@ private[impl] final class AgentImpl(
                 case any           => FunctionTools.toolInvokersFor(any)
               }.toMap
 
-            val toolExecutor = new ToolExecutor(functionTools, serializer)
-
-            val responseSchema =
-              if (req.includeJsonSchema)
-                Some(JsonSchema.jsonSchemaFor(req.responseType))
-              else
-                None
-
-            val userMessageAt = Instant.now()
-
-            val agentRole = Reflect.readAgentRole(agent.getClass)
-            val spiContentLoader = req.contentLoader.map(toSpiContentLoader)
-            new SpiAgent.RequestModelEffect(
-              modelProvider = spiModelProvider,
-              systemMessage = systemMessage,
-              userMessage = toSpiUserMessage(req.userMessage),
-              additionalContext = additionalContext,
-              toolDescriptors = toolDescriptors,
-              mcpClientDescriptors = mcpToolEndpoints,
-              responseType = req.responseType,
-              responseSchema = responseSchema,
-              responseMapping = req.responseMapping,
-              failureMapping = req.failureMapping.map(mapSpiAgentException),
-              replyMetadata = metadata,
-              onSuccess = results => onSuccess(sessionMemoryClient, req.userMessage, userMessageAt, agentRole, results),
-              requestGuardrails = guardrails.modelRequestGuardrails,
-              responseGuardrails = guardrails.modelResponseGuardrails,
-              contentLoader = spiContentLoader,
-              callToolFunction = request => Future(toolExecutor.executeMultimodal(request))(sdkExecutionContext))
+            val memoryReadStart = System.nanoTime()
+            val history = sessionMemoryClient.getHistory(sessionId)
+            metrics.recordMemoryRead(memoryReadStart)
+
+            // the cache is shared by all sessions, a response is only reused for the same session history
+            val responseCacheScope = req.responseCache match {
+              case p: ResponseCacheProvider.SemanticResponseCacheProvider
+                  if req.userMessage.isTextOnly && guardrails.modelRequestGuardrails.isEmpty =>
+                val scope = SemanticResponseCache.scope(
+                  Seq(componentId, modelProvider.toString, systemMessage, req.responseType.getName) ++
+                  functionTools.keys.toSeq.sorted ++
+                  req.mcpTools.collect { case tools: RemoteMcpToolsImpl => tools.serverUri } ++
+                  SemanticResponseCache.historyParts(history))
+                Some(p -> scope)
+              case _ => None
+            }
+            val cachedResponse = responseCacheScope.flatMap { case (p, scope) =>
+              responseCache.lookup(componentId, scope, req.userMessage.text(), p.threshold.toScala.map(_.doubleValue))
+            }
+
+            cachedResponse match {
+              case Some(response) =>
+                replyWithCachedResponse(sessionMemoryClient, req, response)
+
+              case None =>
+                val additionalContext = toSpiContextMessages(history)
+                val mcpToolEndpoints = toSpiMcpEndpoints(req.mcpTools)
+                val toolExecutor =
+                  new ToolExecutor(functionTools, serializer, Some(toolResultCache), sessionId, Some(metrics))
+
+                val responseSchema =
+                  if (req.includeJsonSchema)
+                    Some(responseSchemas.get(req.responseType))
+                  else
+                    None
+
+                val userMessageAt = Instant.now()
+
+                val agentRole = agentRoles.get(agent.getClass)
+                val spiContentLoader = req.contentLoader.map(toSpiContentLoader)
+
+                val modelKey = ModelCallScheduler.keyOf(resolvedModelProvider(modelProvider))
+                // the permit is held until the model has responded, it is released before the tools run
+                val ticket =
+                  if (modelCallScheduler.enabled)
+                    Some(
+                      modelCallScheduler.ticket(
+                        modelKey,
+                        ModelCallScheduler.Priority.fromMetadata(
+                          metadata.get(ModelCallScheduler.PriorityMetadataKey).toScala),
+                        componentId))
+                  else None
+                modelCallTicket = ticket
+                // with a permit, a failure mapping is always installed to release it, when the agent has no failure
+                // mapping of its own the failure is rethrown as is
+                val agentFailureMapping = req.failureMapping.map(mapSpiAgentException)
+                val failureMapping: Option[Throwable => Any] =
+                  ticket match {
+                    case None => agentFailureMapping
+                    case Some(t) =>
+                      Some { (exc: Throwable) =>
+                        t.release(modelCallOutcome(exc))
+                        agentFailureMapping match {
+                          case Some(mapping) => mapping(exc)
+                          case None          => throw exc
+                        }
+                      }
+                  }
+
+                val modelRequestedAt = System.nanoTime()
+                // when the model asked for the first tool calls, its first response, if it did
+                val firstResponseAt = new AtomicLong
+                new SpiAgent.RequestModelEffect(
+                  modelProvider = spiModelProvider,
+                  systemMessage = systemMessage,
+                  userMessage = toSpiUserMessage(req.userMessage),
+                  additionalContext = additionalContext,
+                  toolDescriptors = toolDescriptors,
+                  mcpClientDescriptors = mcpToolEndpoints,
+                  responseType = req.responseType,
+                  responseSchema = responseSchema,
+                  responseMapping = req.responseMapping,
+                  failureMapping = failureMapping,
+                  replyMetadata = spiMetadata,
+                  onSuccess = results => {
+                    ticket.foreach { t =>
+                      t.release(ModelCallScheduler.Succeeded)
+                      t.consumed(tokensOf(results))
+                    }
+                    // only the first model response is timed, the later ones follow tool calls that aren't timed
+                    firstResponseAt.compareAndSet(0L, System.nanoTime())
+                    metrics.recordTokensPerSecond(
+                      modelKey,
+                      firstOutputTokensOf(results),
+                      ticket.fold(modelRequestedAt)(t => math.max(modelRequestedAt, t.grantedAtNanos)),
+                      firstResponseAt.get)
+                    val memoryWriteStart = System.nanoTime()
+                    onSuccess(sessionMemoryClient, req.userMessage, userMessageAt, agentRole, results)
+                    metrics.recordMemoryWrite(memoryWriteStart)
+                    responseCacheScope.foreach { case (p, scope) =>
+                      cacheResponse(p, scope, req.userMessage.text(), results)
+                    }
+                  },
+                  requestGuardrails = requestGuardrails,
+                  responseGuardrails = guardrails.modelResponseGuardrails,
+                  contentLoader = spiContentLoader,
+                  callToolFunction = request => {
+                    firstResponseAt.compareAndSet(0L, System.nanoTime())
+                    ticket.foreach(_.release(ModelCallScheduler.Succeeded))
+                    Future(toolExecutor.executeMultimodal(request))(sdkExecutionContext)
+                  })
+            }
 
           case NoPrimaryEffect =>
             errorOrReply match {
@@ -772,7 +882,43 @@ private[impl] final class AgentImpl(
         if (traceId.isDefined) MDC.remove(Telemetry.TRACE_ID)
       }
 
-    }(sdkExecutionContext)
+    }(sdkExecutionContext).flatMap { effect =>
+      modelCallTicket match {
+        case None => Future.successful(effect)
+        case Some(ticket) =>
+          // enqueued once the effect is built, so that the permit isn't held while building it
+          ticket
+            .enqueue()
+            .map(_ => effect)(ExecutionContext.parasitic)
+            .recover { case e: RateLimitException =>
+              new SpiAgent.ErrorEffect(new SpiAgent.Error(e.getMessage, None))
+            }(ExecutionContext.parasitic)
+      }
+    }(ExecutionContext.parasitic)
+      .andThen { case Failure(_) =>
+        modelCallTicket.foreach(_.release(ModelCallScheduler.Failed))
+      }(ExecutionContext.parasitic)
+  }
+
+  @tailrec
+  private def resolvedModelProvider(modelProvider: ModelProvider): ModelProvider =
+    modelProvider match {
+      case p: ModelProvider.FromConfig =>
+        resolvedModelProvider(modelProviderFromConfig(config, p.configPath(), componentId))
+      case p => p
+    }
+
+  private def modelCallOutcome(exc: Throwable): ModelCallScheduler.Outcome =
+    exc match {
+      case e: SpiAgentException if e.reason == RateLimitFailure => ModelCallScheduler.RateLimited
+      case _                                                     => ModelCallScheduler.Failed
+    }
+
+  private def tokensOf(responses: Seq[SpiAgent.Response]): Long =
+    responses.collect { case res: SpiAgent.ModelResponse => res.inputTokenCount.toLong + res.outputTokenCount }.sum
+
+  private def firstOutputTokensOf(responses: Seq[SpiAgent.Response]): Long =
+    responses.collectFirst { case res: SpiAgent.ModelResponse => res.outputTokenCount.toLong }.getOrElse(0L)
 
   private def toSpiUserMessage(userMessage: agent.UserMessage): SpiAgent.UserMessage = {
     val contents = userMessage.contents().asScala.map(asd => toSpiMessageContent(asd))
@@ -808,7 +954,7 @@ private[impl] final class AgentImpl(
           serializer,
           agentRegistry,
           materializer,
-          new MemorySettings(p.read(), p.write(), p.readLastN(), p.filters()))
+          new MemorySettings(p.read(), p.write(), p.readLastN(), p.filters(), p.compaction()))
 
       case p: MemoryProvider.CustomMemoryProvider =>
         // Custom providers own their own filtering/limit/storage semantics; the journal-fallback
@@ -835,6 +981,36 @@ private[impl] final class AgentImpl(
     }
   }
 
+  private def replyWithCachedResponse(
+      sessionMemoryClient: SessionMemory,
+      req: RequestModel,
+      response: String): SpiAgent.Effect = {
+    val result = deserialize(response, req.responseType)
+    val reply = req.responseMapping.fold(result)(mapping => mapping(result))
+    val now = Instant.now()
+    sessionMemoryClient.addInteraction(
+      sessionId,
+      new UserMessage(now, req.userMessage.text(), componentId),
+      java.util.List.of[SessionMessage](new AiMessage(now, response, componentId)))
+    new SpiAgent.ReplyEffect(serializer.toBytesAsJson(reply), MetadataImpl.toSpi(req.replyMetadata))
+  }
+
+  private def cacheResponse(
+      provider: ResponseCacheProvider.SemanticResponseCacheProvider,
+      scope: String,
+      userMessage: String,
+      responses: Seq[SpiAgent.Response]): Unit = {
+    val toolCalls = responses.exists {
+      case res: SpiAgent.ModelResponse => res.toolRequests.nonEmpty
+      case _                           => true
+    }
+    if (provider.toolCalls || !toolCalls) {
+      responses.reverseIterator.collectFirst { case res: SpiAgent.ModelResponse => res.content }.foreach { content =>
+        responseCache.put(scope, userMessage, content, provider.ttl.toScala.map(_.toScala))
+      }
+    }
+  }
+
   private def onSuccess(
       sessionMemoryClient: SessionMemory,
       userMessage: agent.UserMessage,
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import akka.actor.typed.ActorSystem
+import akka.actor.typed.Extension
+import akka.actor.typed.ExtensionId
+import akka.annotation.InternalApi
+import io.opentelemetry.api.OpenTelemetry
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.DoubleHistogram
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object AgentMetrics extends ExtensionId[AgentMetrics] {
+
+  override def createExtension(system: ActorSystem[_]): AgentMetrics = new AgentMetrics
+
+  def get(system: ActorSystem[_]): AgentMetrics = apply(system)
+
+  val AgentKey: AttributeKey[String] = AttributeKey.stringKey("agent")
+  val ModelKey: AttributeKey[String] = AttributeKey.stringKey("model")
+  private val ToolKey = AttributeKey.stringKey("tool")
+  private val OperationKey = AttributeKey.stringKey("operation")
+
+  private final class Instruments(meter: Meter) {
+    private def seconds(name: String, description: String): DoubleHistogram =
+      meter.histogramBuilder(name).setDescription(description).setUnit("s").build()
+
+    val timeToFirstToken: DoubleHistogram =
+      seconds(
+        "akka.javasdk.agent.model.time_to_first_token",
+        "Time from calling an agent with a token stream until the first token, by agent")
+    val interTokenGap: DoubleHistogram =
+      seconds("akka.javasdk.agent.model.inter_token_gap", "Time between two streamed tokens of an agent, by agent")
+    val tokensPerSecond: DoubleHistogram =
+      meter
+        .histogramBuilder("akka.javasdk.agent.model.tokens_per_second")
+        .setDescription("Output tokens per second of the first model response of an agent request, by agent and model")
+        .setUnit("{token}/s")
+        .build()
+    val toolDuration: DoubleHistogram =
+      seconds("akka.javasdk.agent.tool.duration", "Execution time of the function tools of an agent, by agent and tool")
+    val memoryDuration: DoubleHistogram =
+      seconds(
+        "akka.javasdk.agent.memory.duration",
+        "Time to read or write the session memory of an agent, by agent and operation")
+  }
+
+  private def elapsedSeconds(startNanos: Long): Double =
+    (System.nanoTime() - startNanos) / 1e9
+
+  /** The metrics of one agent component. */
+  final class ForAgent private[AgentMetrics] (metrics: AgentMetrics, componentId: String) {
+    private val agentAttributes = Attributes.of(AgentKey, componentId)
+    private val readAttributes = Attributes.of(AgentKey, componentId, OperationKey, "read")
+    private val writeAttributes = Attributes.of(AgentKey, componentId, OperationKey, "write")
+
+    def recordTimeToFirstToken(startNanos: Long): Unit =
+      metrics.instruments.timeToFirstToken.record(elapsedSeconds(startNanos), agentAttributes)
+
+    def recordInterTokenGap(previousNanos: Long): Unit =
+      metrics.instruments.interTokenGap.record(elapsedSeconds(previousNanos), agentAttributes)
+
+    /** The output tokens of a model response from the start of the model request until the response. */
+    def recordTokensPerSecond(model: String, outputTokens: Long, startNanos: Long, respondedAtNanos: Long): Unit = {
+      val elapsed = (respondedAtNanos - startNanos) / 1e9
+      if (outputTokens > 0 && elapsed > 0)
+        metrics.instruments.tokensPerSecond
+          .record(outputTokens / elapsed, Attributes.of(AgentKey, componentId, ModelKey, model))
+    }
+
+    def recordToolCall(tool: String, startNanos: Long): Unit =
+      metrics.instruments.toolDuration
+        .record(elapsedSeconds(startNanos), Attributes.of(AgentKey, componentId, ToolKey, tool))
+
+    def recordMemoryRead(startNanos: Long): Unit =
+      metrics.instruments.memoryDuration.record(elapsedSeconds(startNanos), readAttributes)
+
+    def recordMemoryWrite(startNanos: Long): Unit =
+      metrics.instruments.memoryDuration.record(elapsedSeconds(startNanos), writeAttributes)
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Latency histograms of the agents on this node, recorded with the meter of the SDK once the service has started, and
+ * with a no-op meter before that and in tests.
+ */
+@InternalApi
+private[javasdk] final class AgentMetrics extends Extension {
+  import AgentMetrics._
+
+  @volatile private var _instruments = new Instruments(OpenTelemetry.noop().getMeter("akka-javasdk"))
+
+  private def instruments: Instruments = _instruments
+
+  def init(meter: Meter): Unit =
+    _instruments = new Instruments(meter)
+
+  def forAgent(componentId: String): ForAgent = new ForAgent(this, componentId)
+}
@@ -79,6 +79,7 @@ private[impl] final class AutonomousAgentImpl(
     agentRegistry: AgentRegistry,
     _system: ActorSystem[_],
     agentDefinition: AgentDefinitionImpl,
+    toolResultCache: ToolResultCache,
     override val instructions: String,
     override val modelProvider: SpiAgent.ModelProvider,
     override val toolDescriptors: Seq[SpiAgent.ToolDescriptor],
@@ -128,7 +129,12 @@ private[impl] final class AutonomousAgentImpl(
           FunctionTools.toolInvokersFor(any)
       }.toMap
 
-    new ToolExecutor(agentInvokers ++ definitionToolInvokers, serializer)
+    new ToolExecutor(
+      agentInvokers ++ definitionToolInvokers,
+      serializer,
+      Some(toolResultCache),
+      instanceId,
+      Some(AgentMetrics.get(system).forAgent(componentId)))
   }
 
   private val taskRuleRunner = new TaskRuleRunner(system.classicSystem, serializer)
@@ -47,13 +47,19 @@ object FunctionTools {
 
     /** Defaults to returnType */
     def genericReturnType: Type = returnType
+
+    /** How the results of the tool are cached, if at all */
+    def cachePolicy: Option[ToolResultCache.Policy] = None
   }
 
   /**
    * INTERNAL API
    */
   @InternalApi
-  private case class RegularFunctionToolInvoker(method: Method, instanceFactory: () => Any)
+  private case class RegularFunctionToolInvoker(
+      method: Method,
+      instanceFactory: () => Any,
+      override val cachePolicy: Option[ToolResultCache.Policy])
       extends FunctionToolInvoker {
 
     private val cls = method.getDeclaringClass
@@ -85,7 +91,10 @@ object FunctionTools {
    * INTERNAL API
    */
   @InternalApi
-  private case class EntityFunctionToolInvoker(method: Method, componentClient: ComponentClient)
+  private case class EntityFunctionToolInvoker(
+      method: Method,
+      componentClient: ComponentClient,
+      override val cachePolicy: Option[ToolResultCache.Policy])
       extends FunctionToolInvoker {
 
     private val cls = method.getDeclaringClass
@@ -120,14 +129,16 @@ object FunctionTools {
 
     override def returnType: Class[_] =
       Reflect.getReturnClass(cls, method)
-
   }
 
   /**
    * INTERNAL API
    */
   @InternalApi
-  private case class ViewFunctionToolInvoker(method: Method, componentClient: ComponentClient)
+  private case class ViewFunctionToolInvoker(
+      method: Method,
+      componentClient: ComponentClient,
+      override val cachePolicy: Option[ToolResultCache.Policy])
       extends FunctionToolInvoker {
 
     private val cls = method.getDeclaringClass
@@ -146,29 +157,48 @@ object FunctionTools {
 
     override def returnType: Class[_] =
       Reflect.getReturnClass(cls, method)
-
   }
 
   private def isAgent(cls: Class[_]): Boolean =
     classOf[Agent].isAssignableFrom(cls) || classOf[AutonomousAgent].isAssignableFrom(cls)
 
+  /**
+   * The tools of a class, resolved once per class, since the tool methods, their JSON schemas and result caching never
+   * change. Only binding the tools to an instance or component client is done for each request.
+   */
+  private final class ToolCatalog(cls: Class[_]) {
+    val methods: Map[String, Method] = resolveMethodNames(cls)
+    val cachePolicies: Map[Method, ToolResultCache.Policy] = policies(perInstance = false)
+    // the results of the tools of a given instance, such as the agent itself, may depend on the state of the instance
+    val instanceCachePolicies: Map[Method, ToolResultCache.Policy] = policies(perInstance = true)
+
+    private def policies(perInstance: Boolean): Map[Method, ToolResultCache.Policy] =
+      methods.values.flatMap(method => ToolResultCache.policyFor(method, perInstance).map(method -> _)).toMap
+    lazy val descriptors: Seq[SpiAgent.ToolDescriptor] = toToolDescriptors(cls, methods)
+  }
+
+  private val toolCatalogs: ClassValue[ToolCatalog] = new ClassValue[ToolCatalog] {
+    override def computeValue(cls: Class[_]): ToolCatalog = new ToolCatalog(cls)
+  }
+
   def descriptorsFor(cls: Class[_]): Seq[SpiAgent.ToolDescriptor] = {
 
     // we only validate against non-agent classes,
     // the Agent class is added by default and is not required to have a method annotated with FunctionTool
-    if (!isAgent(cls) && annotatedMethods(cls).isEmpty)
+    val catalog = toolCatalogs.get(cls)
+    if (!isAgent(cls) && catalog.methods.isEmpty)
       throw new IllegalArgumentException(s"No tools found in class [${cls.getName}]")
 
-    toToolDescriptors(cls)
+    catalog.descriptors
   }
 
   def toolInvokersFor(any: Any): Map[String, FunctionToolInvoker] =
-    collectFunctionToolInvokers(any.getClass) { () => any }
+    collectFunctionToolInvokers(any.getClass, perInstance = true) { () => any }
 
   def toolInvokersFor(
       cls: Class[_],
       dependencyProvider: Option[DependencyProvider]): Map[String, FunctionToolInvoker] = {
-    collectFunctionToolInvokers(cls) { () =>
+    collectFunctionToolInvokers(cls, perInstance = false) { () =>
       dependencyProvider
         .map { depProv => depProv.getDependency(cls) }
         .getOrElse {
@@ -182,18 +212,21 @@ object FunctionTools {
 
   def toolComponentInvokersFor(cls: Class[_], componentClient: ComponentClient): Map[String, FunctionToolInvoker] = {
 
-    resolvedMethodNames(cls).map { case (name, method) =>
+    val catalog = toolCatalogs.get(cls)
+    catalog.methods.map { case (name, method) =>
       if (Reflect.isView(cls))
-        name -> ViewFunctionToolInvoker(method, componentClient)
+        name -> ViewFunctionToolInvoker(method, componentClient, catalog.cachePolicies.get(method))
       else
-        name -> EntityFunctionToolInvoker(method, componentClient)
+        name -> EntityFunctionToolInvoker(method, componentClient, catalog.cachePolicies.get(method))
     }
   }
 
-  private def collectFunctionToolInvokers(cls: Class[_])(
+  private def collectFunctionToolInvokers(cls: Class[_], perInstance: Boolean)(
       instanceFactory: () => Any): Map[String, FunctionToolInvoker] = {
-    resolvedMethodNames(cls).map { case (name, method) =>
-      name -> RegularFunctionToolInvoker(method, instanceFactory)
+    val catalog = toolCatalogs.get(cls)
+    val cachePolicies = if (perInstance) catalog.instanceCachePolicies else catalog.cachePolicies
+    catalog.methods.map { case (name, method) =>
+      name -> RegularFunctionToolInvoker(method, instanceFactory, cachePolicies.get(method))
     }
   }
 
@@ -224,9 +257,9 @@ object FunctionTools {
         required = requiredFields)
     }
   }
-  private def toToolDescriptors(cls: Class[_]): Seq[SpiAgent.ToolDescriptor] = {
+  private def toToolDescriptors(cls: Class[_], methods: Map[String, Method]): Seq[SpiAgent.ToolDescriptor] = {
 
-    resolvedMethodNames(cls).map { case (name, method) =>
+    methods.map { case (name, method) =>
       val toolAnno = method.getAnnotation(classOf[FunctionTool])
 
       val objSchema =
@@ -249,7 +282,10 @@ object FunctionTools {
       // tool methods in agent don't need to be public
       .filter(m => m.isPublic || isAgent(cls))
 
-  private def resolvedMethodNames(cls: Class[_]): Map[String, Method] = {
+  private def resolvedMethodNames(cls: Class[_]): Map[String, Method] =
+    toolCatalogs.get(cls).methods
+
+  private def resolveMethodNames(cls: Class[_]): Map[String, Method] = {
 
     // methods are prefixed with the class simple name
     // note this is the real impl class, not the interface or parent class.
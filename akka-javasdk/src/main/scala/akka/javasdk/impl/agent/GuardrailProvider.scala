@@ -4,8 +4,10 @@
 
 package akka.javasdk.impl.agent
 
+import scala.concurrent.ExecutionContext
 import scala.concurrent.Future
 import scala.util.Failure
+import scala.util.control.NonFatal
 
 import akka.actor.typed.ActorSystem
 import akka.annotation.InternalApi
@@ -16,16 +18,24 @@ import akka.javasdk.agent.TextGuardrail
 import akka.javasdk.impl.agent.ConfiguredGuardrail.UseFor
 import akka.runtime.sdk.spi.SpiAgent
 import com.typesafe.config.Config
+import io.opentelemetry.api.OpenTelemetry
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.DoubleHistogram
+import io.opentelemetry.api.metrics.Meter
 
 /**
  * INTERNAL API
  */
 @InternalApi private[javasdk] object GuardrailProvider {
   final case class GuardrailEntry(configuredGuardrail: ConfiguredGuardrail, guardrail: Guardrail)
-  final case class AgentGuardrails(entries: Seq[GuardrailEntry]) {
+  final case class AgentGuardrails(
+      entries: Seq[GuardrailEntry],
+      metrics: GuardrailMetrics = GuardrailMetrics.noop,
+      componentId: String = "") {
     private def collectGuardrails(useFor: UseFor): Seq[SpiAgent.Guardrail] =
       entries.collect {
-        case entry if entry.configuredGuardrail.useFor.contains(useFor) => toSpiGuardrail(entry)
+        case entry if entry.configuredGuardrail.useFor.contains(useFor) => toSpiGuardrail(entry, metrics, componentId)
       }
 
     val modelRequestGuardrails: Seq[SpiAgent.Guardrail] =
@@ -36,22 +46,75 @@ import com.typesafe.config.Config
       collectGuardrails(UseFor.McpToolRequest)
     val mcpToolResponseGuardrails: Seq[SpiAgent.Guardrail] =
       collectGuardrails(UseFor.McpToolResponse)
+
+    /**
+     * The model request guardrails for a request with the given user message, with the guardrails that are evaluated
+     * in the service already started in the background. They are evaluated in one pass over the text, while the rest
+     * of the request is prepared, and the remaining ones are skipped once a guardrail has blocked the text. When the
+     * request guardrails are evaluated for the same text, the speculative results are used.
+     */
+    def speculativeModelRequestGuardrails(text: String)(implicit ec: ExecutionContext): Seq[SpiAgent.Guardrail] = {
+      val adapters = modelRequestGuardrails.collect { case adapter: SpiGuardrailAdapter => adapter }
+      if (adapters.isEmpty) modelRequestGuardrails
+      else {
+        val results = Future {
+          var blocked = false
+          adapters.foldLeft(Map.empty[String, SpiAgent.Guardrail.Result]) { (acc, adapter) =>
+            if (blocked) acc // the remaining guardrails are skipped
+            else {
+              try {
+                val result = adapter.evaluateText(text)
+                // a report only guardrail doesn't block the request
+                blocked = !result.passed && !adapter.reportOnly
+                acc.updated(adapter.name, result)
+              } catch {
+                case NonFatal(_) => acc // evaluated again, and fails, when requested
+              }
+            }
+          }
+        }
+        modelRequestGuardrails.map {
+          case adapter: SpiGuardrailAdapter => new SpeculativeGuardrail(adapter, text, results)
+          case other                        => other
+        }
+      }
+    }
   }
 
-  final class SpiGuardrailAdapter(entry: GuardrailEntry) extends SpiAgent.Guardrail {
+  final class GuardrailMetrics(meter: Meter) {
+    private val duration: DoubleHistogram =
+      meter
+        .histogramBuilder("akka.javasdk.agent.guardrail.duration")
+        .setDescription("Time to evaluate a guardrail in the service, by agent, guardrail name, category and result")
+        .setUnit("s")
+        .build()
+
+    def record(componentId: String, name: String, category: String, result: String, startNanos: Long): Unit =
+      duration.record(
+        (System.nanoTime() - startNanos) / 1e9,
+        Attributes.of(AgentMetrics.AgentKey, componentId, GuardrailKey, name, CategoryKey, category, ResultKey, result))
+  }
+
+  object GuardrailMetrics {
+    val noop: GuardrailMetrics = new GuardrailMetrics(OpenTelemetry.noop().getMeter("akka-javasdk"))
+  }
+
+  private val GuardrailKey = AttributeKey.stringKey("guardrail")
+  private val CategoryKey = AttributeKey.stringKey("category")
+  private val ResultKey = AttributeKey.stringKey("result")
+
+  final class SpiGuardrailAdapter(entry: GuardrailEntry, metrics: GuardrailMetrics, componentId: String)
+      extends SpiAgent.Guardrail {
     private val guardrail = entry.guardrail
 
+    def this(entry: GuardrailEntry) = this(entry, GuardrailMetrics.noop, "")
+
     override def evaluate(content: SpiAgent.Guardrail.Content): Future[SpiAgent.Guardrail.Result] = {
       content match {
         case textContent: SpiAgent.Guardrail.TextContent =>
-          guardrail match {
-            case textGuardrail: TextGuardrail =>
-              val result = textGuardrail.evaluate(textContent.text)
-              Future.successful(new SpiAgent.Guardrail.Result(result.passed, result.explanation))
-            case other =>
-              // it's sealed to only TextGuardrail so this shouldn't happen unless we add more types
-              Future.failed(
-                new IllegalStateException(s"Only TextGuardrail is supported, but was [${other.getClass.getName}]"))
+          try Future.successful(evaluateText(textContent.text))
+          catch {
+            case NonFatal(e) => Future.failed(e)
           }
 
         case other =>
@@ -60,6 +123,25 @@ import com.typesafe.config.Config
       }
     }
 
+    def evaluateText(text: String): SpiAgent.Guardrail.Result = {
+      guardrail match {
+        case textGuardrail: TextGuardrail =>
+          val start = System.nanoTime()
+          try {
+            val result = textGuardrail.evaluate(text)
+            metrics.record(componentId, name, category, if (result.passed) "passed" else "blocked", start)
+            new SpiAgent.Guardrail.Result(result.passed, result.explanation)
+          } catch {
+            case NonFatal(e) =>
+              metrics.record(componentId, name, category, "failed", start)
+              throw e
+          }
+        case other =>
+          // it's sealed to only TextGuardrail so this shouldn't happen unless we add more types
+          throw new IllegalStateException(s"Only TextGuardrail is supported, but was [${other.getClass.getName}]")
+      }
+    }
+
     override val name: String =
       entry.configuredGuardrail.name
 
@@ -70,10 +152,42 @@ import com.typesafe.config.Config
       entry.configuredGuardrail.reportOnly
   }
 
-  private def toSpiGuardrail(entry: GuardrailEntry): SpiAgent.Guardrail =
+  /**
+   * A guardrail with a speculative result for the text of the request, evaluated again for other content.
+   */
+  final class SpeculativeGuardrail(
+      adapter: SpiGuardrailAdapter,
+      text: String,
+      results: Future[Map[String, SpiAgent.Guardrail.Result]])
+      extends SpiAgent.Guardrail {
+
+    override def evaluate(content: SpiAgent.Guardrail.Content): Future[SpiAgent.Guardrail.Result] =
+      content match {
+        case textContent: SpiAgent.Guardrail.TextContent if textContent.text == text =>
+          results.flatMap { byName =>
+            byName.get(name) match {
+              case Some(result) => Future.successful(result)
+              case None         => adapter.evaluate(content) // skipped or failed
+            }
+          }(ExecutionContext.parasitic)
+        case _ =>
+          adapter.evaluate(content)
+      }
+
+    override val name: String = adapter.name
+
+    override val category: String = adapter.category
+
+    override val reportOnly: Boolean = adapter.reportOnly
+  }
+
+  private def toSpiGuardrail(
+      entry: GuardrailEntry,
+      metrics: GuardrailMetrics,
+      componentId: String): SpiAgent.Guardrail =
     entry.guardrail match {
-      case g: SimilarityGuard => toSpiSimilarityGuard(g, entry.configuredGuardrail)
-      case _                  => new SpiGuardrailAdapter(entry)
+      case g: SimilarityGuard if !g.inProcess => toSpiSimilarityGuard(g, entry.configuredGuardrail)
+      case _                                  => new SpiGuardrailAdapter(entry, metrics, componentId)
     }
 
   private def toSpiSimilarityGuard(g: SimilarityGuard, c: ConfiguredGuardrail): SpiAgent.SimilarityGuard =
@@ -83,9 +197,14 @@ import com.typesafe.config.Config
 /**
  * INTERNAL API
  */
-@InternalApi private[javasdk] final class GuardrailProvider(system: ActorSystem[_], applicationConfig: Config) {
+@InternalApi private[javasdk] final class GuardrailProvider(
+    system: ActorSystem[_],
+    applicationConfig: Config,
+    meter: Meter = OpenTelemetry.noop().getMeter("akka-javasdk")) {
   import GuardrailProvider._
 
+  private val metrics = new GuardrailMetrics(meter)
+
   lazy val configuredGuardrails: Seq[ConfiguredGuardrail] = {
     GuardrailSettings(applicationConfig.getConfig("akka.javasdk.agent.guardrails")).configuredGuardrails
   }
@@ -157,7 +276,7 @@ import com.typesafe.config.Config
         else
           acc.updated(name, entry)
       }
-    AgentGuardrails(deduplicated.values.toVector)
+    AgentGuardrails(deduplicated.values.toVector, metrics, componentId)
   }
 
 }
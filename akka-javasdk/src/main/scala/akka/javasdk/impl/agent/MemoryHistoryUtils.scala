@@ -7,9 +7,9 @@ package akka.javasdk.impl.agent
 import java.util
 import java.util.Optional
 import java.util.function.Function
+import java.util.function.Predicate
 
 import scala.jdk.CollectionConverters._
-import scala.jdk.OptionConverters._
 
 import akka.annotation.InternalApi
 import akka.javasdk.agent.AgentRegistry
@@ -42,35 +42,80 @@ object MemoryHistoryUtils {
         .agentInfoOption(componentId)
         .flatMap(info => Optional.ofNullable(info.role()).filter(r => r.trim.nonEmpty))
 
+  /**
+   * A list of memory filters compiled into a single predicate. A filter only depends on the component of a message, so
+   * the filters are evaluated once per component, with the ids and roles of the filters in hash sets, and the decision
+   * is remembered for the following messages of the same component. That also looks up the role of each component only
+   * once.
+   */
+  final class CompiledFilters private[MemoryHistoryUtils] (filters: util.List[MemoryFilter], roleLookup: RoleLookup)
+      extends Predicate[SessionMessage] {
+
+    private val compiled: Array[CompiledFilter] =
+      filters.asScala.iterator.map {
+        case incl: MemoryFilter.Include => new CompiledFilter(include = true, incl.ids(), incl.roles())
+        case excl: MemoryFilter.Exclude => new CompiledFilter(include = false, excl.ids(), excl.roles())
+      }.toArray
+
+    private val decisions = new util.HashMap[String, java.lang.Boolean]()
+
+    def isEmpty: Boolean = compiled.isEmpty
+
+    def includes(componentId: String): Boolean = {
+      val decided = decisions.get(componentId)
+      if (decided ne null) decided
+      else {
+        val role = roleLookup.apply(componentId).orElse(null)
+        val decision = compiled.forall(_.includes(componentId, role))
+        decisions.put(componentId, decision)
+        decision
+      }
+    }
+
+    override def test(message: SessionMessage): Boolean = includes(message.componentId())
+  }
+
+  private final class CompiledFilter(include: Boolean, ids: util.Set[String], roles: util.Set[String]) {
+    private val idSet: Set[String] = ids.asScala.toSet
+    private val roleSet: Set[String] = roles.asScala.toSet
+
+    def includes(componentId: String, role: String): Boolean = {
+      val matches = idSet.contains(componentId) || ((role ne null) && roleSet.contains(role))
+      if (include) matches else !matches
+    }
+  }
+
+  /**
+   * Compile the filters once for a history read. Not thread safe, the decisions per component are remembered in a
+   * plain map.
+   */
+  def compile(filters: util.List[MemoryFilter], roleLookup: RoleLookup): CompiledFilters =
+    new CompiledFilters(filters, roleLookup)
+
   /** Apply each filter in order, narrowing the message list as we go. */
   def applyFilters(
       messages: util.List[SessionMessage],
       filters: util.List[MemoryFilter],
-      roleLookup: RoleLookup): util.List[SessionMessage] = {
-    var current = messages.asScala.toList
-    filters.asScala.foreach { filter =>
-      current = applyFilter(current, filter, roleLookup)
-    }
-    current.asJava
-  }
+      roleLookup: RoleLookup): util.List[SessionMessage] =
+    applyFilters(messages, compile(filters, roleLookup))
 
-  private def applyFilter(
-      messages: List[SessionMessage],
-      filter: MemoryFilter,
-      roleLookup: RoleLookup): List[SessionMessage] = filter match {
-    case incl: MemoryFilter.Include =>
-      val ids = incl.ids().asScala
-      val roles = incl.roles().asScala
-      messages.filter { m =>
-        ids.contains(m.componentId()) ||
-        roleLookup.apply(m.componentId()).toScala.exists(roles.contains)
-      }
-    case excl: MemoryFilter.Exclude =>
-      val ids = excl.ids().asScala
-      val roles = excl.roles().asScala
-      messages.filter { m =>
-        !ids.contains(m.componentId()) &&
-        !roleLookup.apply(m.componentId()).toScala.exists(roles.contains)
+  /**
+   * Apply the compiled filters in a single pass. For a [[SessionMessageBuffer]] the filters are decided for the
+   * components of the buffer first, and the buffer itself is returned when no message is filtered out. The given list
+   * is also returned as is when there are no filters.
+   */
+  def applyFilters(messages: util.List[SessionMessage], filters: CompiledFilters): util.List[SessionMessage] = {
+    if (filters.isEmpty) messages
+    else
+      messages match {
+        case buffer: SessionMessageBuffer =>
+          val componentIds = buffer.componentIds()
+          val included = componentIds.asScala.count(filters.includes)
+          if (included == componentIds.size) buffer
+          else if (included == 0) util.List.of()
+          else buffer.stream().filter(filters).toList
+        case _ =>
+          messages.stream().filter(filters).toList
       }
   }
 
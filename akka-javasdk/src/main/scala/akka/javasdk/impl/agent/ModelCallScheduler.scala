@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.Future
+import scala.concurrent.Promise
+import scala.concurrent.duration._
+import scala.jdk.DurationConverters._
+
+import akka.Done
+import akka.actor.Cancellable
+import akka.actor.typed.Scheduler
+import akka.annotation.InternalApi
+import akka.javasdk.agent.ModelProvider
+import akka.javasdk.agent.RateLimitException
+import com.typesafe.config.Config
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object ModelCallScheduler {
+
+  /** Metadata of an agent request with the value "background" for work that nobody is waiting for. */
+  val PriorityMetadataKey = "akka-agent-priority"
+
+  sealed trait Priority
+  case object Interactive extends Priority
+  case object Background extends Priority
+
+  object Priority {
+    def fromMetadata(value: Option[String]): Priority =
+      if (value.exists(_.equalsIgnoreCase("background"))) Background else Interactive
+  }
+
+  sealed trait Outcome
+  case object Succeeded extends Outcome
+  case object RateLimited extends Outcome
+  case object Failed extends Outcome
+
+  final case class Settings(
+      enabled: Boolean,
+      initialConcurrency: Int,
+      minConcurrency: Int,
+      maxConcurrency: Int,
+      backoffRatio: Double,
+      tokensPerMinute: Long,
+      interactiveShare: Int,
+      maxQueueSize: Int,
+      leaseTimeout: FiniteDuration)
+
+  object Settings {
+    def apply(config: Config): Settings =
+      Settings(
+        enabled = config.getBoolean("enabled"),
+        initialConcurrency = config.getInt("initial-concurrency"),
+        minConcurrency = config.getInt("min-concurrency"),
+        maxConcurrency = config.getInt("max-concurrency"),
+        backoffRatio = config.getDouble("backoff-ratio"),
+        tokensPerMinute = config.getLong("tokens-per-minute"),
+        interactiveShare = config.getInt("interactive-share"),
+        maxQueueSize = config.getInt("max-queue-size"),
+        leaseTimeout = config.getDuration("lease-timeout").toScala)
+  }
+
+  def apply(config: Config, meter: Meter, scheduler: Scheduler, ec: ExecutionContext): ModelCallScheduler =
+    new ModelCallScheduler(Settings(config), meter, scheduler)(ec)
+
+  /** The provider and model of a resolved model provider, the requests of each are scheduled separately. */
+  def keyOf(provider: ModelProvider): String =
+    provider match {
+      case p: ModelProvider.Anthropic      => s"anthropic:${p.modelName}"
+      case p: ModelProvider.GoogleAIGemini => s"googleai-gemini:${p.modelName}"
+      case p: ModelProvider.HuggingFace    => s"hugging-face:${p.modelId}"
+      case p: ModelProvider.LocalAI        => s"local-ai:${p.modelName}"
+      case p: ModelProvider.Ollama         => s"ollama:${p.modelName}"
+      case p: ModelProvider.OpenAi         => s"openai:${p.modelName}"
+      case p: ModelProvider.AzureOpenAi    => s"azure-openai:${p.deploymentName}"
+      case p: ModelProvider.VertexAi       => s"vertex-ai:${p.modelName}"
+      case p: ModelProvider.MistralAi      => s"mistral-ai:${p.modelName}"
+      case p: ModelProvider.Bedrock        => s"bedrock:${p.modelId}"
+      case p: ModelProvider.Custom         => s"${p.getClass.getName}:${p.modelName()}"
+      case other                           => other.getClass.getName
+    }
+
+  /**
+   * A model request that waits for a permit of the scheduler once enqueued. Once granted, it must be released when the
+   * model has responded, or it is released after the lease timeout. A ticket that is released before it was granted
+   * gives up its place in the queue.
+   */
+  final class Ticket private[ModelCallScheduler] (
+      lane: ModelCallScheduler#Lane,
+      val priority: Priority,
+      private[ModelCallScheduler] val attributes: Attributes) {
+    @volatile private[ModelCallScheduler] var enqueuedAt = 0L
+    @volatile private[ModelCallScheduler] var grantedAt = 0L
+    private[ModelCallScheduler] val promise = Promise[Done]()
+    @volatile private[ModelCallScheduler] var lease: Cancellable = Cancellable.alreadyCancelled
+    private val released = new AtomicBoolean
+
+    /** Waits for a permit, see [[granted]]. */
+    def enqueue(): Future[Done] = {
+      lane.enqueue(this)
+      granted
+    }
+
+    /**
+     * Completed when the request may start, or failed with a [[RateLimitException]] if the queue was full, or when the
+     * ticket was released before it was granted.
+     */
+    def granted: Future[Done] = promise.future
+
+    /** The `System.nanoTime` when the request was granted. */
+    def grantedAtNanos: Long = grantedAt
+
+    def release(outcome: Outcome): Unit =
+      if (released.compareAndSet(false, true)) {
+        lease.cancel()
+        if (promise.tryFailure(new RateLimitException("Model request was released before it was started")))
+          lane.withdraw(this)
+        else if (promise.future.value.exists(_.isSuccess)) lane.release(outcome, grantedAt)
+      }
+
+    /** Draws the tokens used by the request from the token budget, also after the permit was released. */
+    def consumed(tokens: Long): Unit =
+      if (promise.future.value.exists(_.isSuccess)) lane.consume(tokens)
+  }
+
+  private val PriorityKey = AttributeKey.stringKey("priority")
+}
+
+/**
+ * INTERNAL API
+ *
+ * Node-local scheduler of the model requests of agents, with one lane per model provider and model. Each lane limits
+ * the number of concurrent requests with additive increase on success and multiplicative decrease when the provider
+ * rate limits, and optionally the tokens per minute, with a token bucket that is drawn down by the token usage of the
+ * responses. The limit is decreased at most once for the requests that were started before the last decrease, since
+ * those were all started under the higher limit and are likely to be rate limited together. Requests over the limits
+ * are queued in two priority lanes instead of all retrying at once: interactive requests go first, but background
+ * requests get every `interactiveShare + 1`th permit while both are waiting.
+ */
+@InternalApi
+private[javasdk] final class ModelCallScheduler(
+    settings: ModelCallScheduler.Settings,
+    meter: Meter,
+    scheduler: Scheduler)(implicit ec: ExecutionContext) {
+  import ModelCallScheduler._
+
+  private val lanes = new ConcurrentHashMap[String, Lane]
+
+  private val queueTime =
+    meter
+      .histogramBuilder("akka.javasdk.agent.model.queue_time")
+      .setDescription("Time that agent model requests wait for the model call scheduler, by agent, model and priority")
+      .setUnit("s")
+      .build()
+
+  def enabled: Boolean = settings.enabled
+
+  /** A ticket for a model request to the provider and model of the key, that waits for a permit once enqueued. */
+  def ticket(key: String, priority: Priority, componentId: String): Ticket =
+    lanes.computeIfAbsent(key, new Lane(_)).ticket(priority, componentId)
+
+  /** The current concurrency limit of the lane, for tests. */
+  private[agent] def limit(key: String): Double =
+    Option(lanes.get(key)).map(_.currentLimit).getOrElse(settings.initialConcurrency.toDouble)
+
+  private[agent] final class Lane(key: String) {
+    // guarded by this
+    private var limit = settings.initialConcurrency.toDouble
+    private var inFlight = 0
+    private var tokens = settings.tokensPerMinute.toDouble
+    private var refilledAt = System.nanoTime()
+    private var refillScheduled = false
+    // requests granted before this were started under the limit before the last decrease
+    private var decreased = false
+    private var decreasedAt = 0L
+    private var interactiveInARow = 0
+    private val interactive = new util.ArrayDeque[Ticket]
+    private val background = new util.ArrayDeque[Ticket]
+
+    def currentLimit: Double = synchronized(limit)
+
+    def ticket(priority: Priority, componentId: String): Ticket = {
+      val attributes = Attributes.of(
+        AgentMetrics.AgentKey,
+        componentId,
+        AgentMetrics.ModelKey,
+        key,
+        PriorityKey,
+        if (priority == Interactive) "interactive" else "background")
+      new Ticket(this, priority, attributes)
+    }
+
+    def enqueue(ticket: Ticket): Unit = {
+      ticket.enqueuedAt = System.nanoTime()
+      val queued = synchronized {
+        if (interactive.size + background.size >= settings.maxQueueSize) false
+        else {
+          (if (ticket.priority == Interactive) interactive else background).add(ticket)
+          true
+        }
+      }
+      if (queued) dispatch()
+      else
+        ticket.promise.tryFailure(
+          new RateLimitException(s"Too many model requests waiting for [$key], limit is ${settings.maxQueueSize}"))
+    }
+
+    def withdraw(ticket: Ticket): Unit =
+      synchronized {
+        interactive.remove(ticket)
+        background.remove(ticket)
+      }
+
+    def release(outcome: Outcome, grantedAt: Long): Unit = {
+      synchronized {
+        inFlight -= 1
+        outcome match {
+          case Succeeded =>
+            limit = math.min(settings.maxConcurrency.toDouble, limit + 1.0 / limit)
+          case RateLimited if !decreased || grantedAt - decreasedAt > 0 =>
+            limit = math.max(settings.minConcurrency.toDouble, limit * settings.backoffRatio)
+            decreased = true
+            decreasedAt = System.nanoTime()
+          case RateLimited | Failed =>
+        }
+      }
+      dispatch()
+    }
+
+    def consume(used: Long): Unit =
+      if (settings.tokensPerMinute > 0)
+        synchronized {
+          refill()
+          tokens -= used
+        }
+
+    private def dispatch(): Unit = {
+      val granted = new util.ArrayList[Ticket]
+      var refillIn = Duration.Zero
+      synchronized {
+        refill()
+        while (inFlight < math.max(1, limit.toInt) && hasTokens && !(interactive.isEmpty && background.isEmpty)) {
+          granted.add(next())
+          inFlight += 1
+        }
+        if (!hasTokens && !(interactive.isEmpty && background.isEmpty) && !refillScheduled) {
+          refillScheduled = true
+          // until the bucket has refilled to one token
+          refillIn = math.ceil((1 - tokens) * 60e9 / settings.tokensPerMinute).toLong.nanos
+        }
+      }
+
+      granted.forEach { ticket =>
+        val now = System.nanoTime()
+        ticket.grantedAt = now
+        if (ticket.promise.trySuccess(Done)) {
+          queueTime.record((now - ticket.enqueuedAt) / 1e9, ticket.attributes)
+          ticket.lease = scheduler.scheduleOnce(settings.leaseTimeout, () => ticket.release(Failed))
+        } else {
+          // released while it was being granted
+          release(Failed, now)
+        }
+      }
+
+      if (refillIn > Duration.Zero)
+        scheduler.scheduleOnce(
+          refillIn,
+          () => {
+            synchronized {
+              refillScheduled = false
+            }
+            dispatch()
+          })
+    }
+
+    private def next(): Ticket =
+      if (background.isEmpty || (!interactive.isEmpty && interactiveInARow < settings.interactiveShare)) {
+        interactiveInARow += 1
+        interactive.poll()
+      } else {
+        interactiveInARow = 0
+        background.poll()
+      }
+
+    private def hasTokens: Boolean =
+      settings.tokensPerMinute <= 0 || tokens >= 1
+
+    private def refill(): Unit =
+      if (settings.tokensPerMinute > 0) {
+        val now = System.nanoTime()
+        tokens = math.min(
+          settings.tokensPerMinute.toDouble,
+          tokens + (now - refilledAt) * settings.tokensPerMinute / 60e9)
+        refilledAt = now
+      }
+  }
+}
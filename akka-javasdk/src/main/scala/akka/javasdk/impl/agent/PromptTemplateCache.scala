@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
+import java.util.function.{ Function => JFunction }
+
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.DurationConverters._
+
+import akka.annotation.InternalApi
+import com.typesafe.config.Config
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object PromptTemplateCache {
+
+  def apply(config: Config, meter: Meter): PromptTemplateCache =
+    new PromptTemplateCache(config.getInt("max-size"), config.getDuration("max-staleness").toScala, meter)
+
+  private final class Entry(val prompt: String, val loadedAtNanos: Long)
+
+  private val ResultKey = AttributeKey.stringKey("result")
+  private val HitAttributes = Attributes.of(ResultKey, "hit")
+  private val MissAttributes = Attributes.of(ResultKey, "miss")
+}
+
+/**
+ * INTERNAL API
+ *
+ * Node-local cache of prompt templates, keyed by template id, shared by all agents of the service.
+ *
+ * A cached template is dropped when the [[akka.javasdk.agent.PromptTemplate]] entity persists a change on this node,
+ * changes made through another node are picked up at the latest once the entry is older than `maxStaleness`. When
+ * there are more than `maxSize` templates the oldest entry is evicted.
+ */
+@InternalApi
+private[javasdk] final class PromptTemplateCache(maxSize: Int, maxStaleness: FiniteDuration, meter: Meter) {
+  import PromptTemplateCache._
+
+  private val maxStalenessNanos = maxStaleness.toNanos
+  private val enabled = maxSize > 0 && maxStalenessNanos > 0
+  private val entries = new ConcurrentHashMap[String, Entry]()
+  // bumped for each invalidation, a template loaded concurrently with an invalidation is not cached
+  private val invalidations = new AtomicLong
+  private val hits = new LongAdder
+  private val misses = new LongAdder
+
+  private val lookups =
+    meter
+      .counterBuilder("akka.javasdk.agent.prompt_template.cache.lookups")
+      .setDescription("Prompt template cache lookups, by result (hit or miss)")
+      .build()
+
+  meter
+    .gaugeBuilder("akka.javasdk.agent.prompt_template.cache.hit_ratio")
+    .setDescription("Ratio of prompt template lookups served from the node-local cache")
+    .buildWithCallback(measurement => measurement.record(hitRatio))
+
+  def get(templateId: String, load: JFunction[String, String]): String = {
+    if (!enabled) load(templateId)
+    else {
+      val entry = entries.get(templateId)
+      if ((entry ne null) && System.nanoTime() - entry.loadedAtNanos < maxStalenessNanos) {
+        hits.increment()
+        lookups.add(1, HitAttributes)
+        entry.prompt
+      } else {
+        misses.increment()
+        lookups.add(1, MissAttributes)
+        val invalidationsBeforeLoad = invalidations.get()
+        val prompt = load(templateId)
+        if (invalidations.get() == invalidationsBeforeLoad) put(templateId, new Entry(prompt, System.nanoTime()))
+        prompt
+      }
+    }
+  }
+
+  def invalidate(templateId: String): Unit = {
+    invalidations.incrementAndGet()
+    entries.remove(templateId)
+  }
+
+  def hitRatio: Double = {
+    val hitCount = hits.sum()
+    val total = hitCount + misses.sum()
+    if (total == 0) 0.0 else hitCount.toDouble / total
+  }
+
+  private def put(templateId: String, entry: Entry): Unit = {
+    entries.put(templateId, entry)
+    // templates are few, a scan for the oldest entry is cheaper than maintaining an access order
+    while (entries.size > maxSize) {
+      var oldest: java.util.Map.Entry[String, Entry] = null
+      entries.entrySet().forEach { e =>
+        if ((oldest eq null) || e.getValue.loadedAtNanos < oldest.getValue.loadedAtNanos) oldest = e
+      }
+      if (oldest ne null) entries.remove(oldest.getKey, oldest.getValue)
+    }
+  }
+}
@@ -9,7 +9,6 @@ import java.util.Optional
 import akka.annotation.InternalApi
 import akka.javasdk.agent.Agent
 import akka.javasdk.agent.AgentContext
-import akka.javasdk.impl.CommandSerialization
 import akka.javasdk.impl.HandlerNotFoundException
 import akka.javasdk.impl.MethodInvoker
 import akka.javasdk.impl.serialization.Serializer
@@ -51,14 +50,7 @@ private[impl] class ReflectiveAgentRouter[A <: Agent](
     } else if (serializer.isJson(command) || command.isEmpty) {
       // - BytesPayload.empty - there is no real command, and we are calling a method with arity 0
       // - BytesPayload with json - we deserialize it and call the method
-      val deserializedCommand =
-        CommandSerialization.deserializeComponentClientCommand(methodInvoker.method, command, serializer)
-
-      val result = deserializedCommand match {
-        case None          => methodInvoker.invoke(agent)
-        case Some(command) => methodInvoker.invokeDirectly(agent, command)
-      }
-      result
+      methodInvoker.invokeCommand(agent, command)
     } else {
       throw new IllegalStateException(
         s"Could not find a matching command handler for method [$commandName], content type [${command.contentType}] " +
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.util
+
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.CollectionConverters._
+import scala.jdk.DurationConverters._
+import scala.util.Random
+
+import akka.annotation.InternalApi
+import akka.javasdk.agent.SessionHistory
+import akka.javasdk.agent.SessionMessage
+import akka.javasdk.agent.TextEmbedder
+import com.typesafe.config.Config
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object SemanticResponseCache {
+
+  def apply(config: Config, meter: Meter): SemanticResponseCache =
+    new SemanticResponseCache(
+      config.getDouble("threshold"),
+      config.getDuration("ttl").toScala,
+      config.getInt("max-entries"),
+      if (config.getString("embedder").isBlank) HashedNGramEmbedder.INSTANCE
+      else SimilarityIndex.embedder(config.getString("embedder")),
+      meter)
+
+  /** The digest of everything but the user message that the model response depends on. */
+  def scope(parts: Seq[String]): String = {
+    val digest = MessageDigest.getInstance("SHA-256")
+    parts.foreach { part =>
+      digest.update(part.getBytes(StandardCharsets.UTF_8))
+      digest.update(0.toByte)
+    }
+    digest.digest().map(b => f"$b%02x").mkString
+  }
+
+  /**
+   * The parts of the session history that the model response depends on, for the scope. Timestamps and tool call ids
+   * are left out, so that sessions with the same conversation share responses.
+   */
+  def historyParts(history: SessionHistory): Seq[String] =
+    history.messages().asScala.toSeq.map {
+      case m: SessionMessage.UserMessage           => s"user:${m.text}"
+      case m: SessionMessage.MultimodalUserMessage => s"user:${m.contents}"
+      case m: SessionMessage.AiMessage =>
+        m.toolCallRequests().asScala.map(r => s"${r.name}(${r.arguments})").mkString(s"ai:${m.text}:", ",", "")
+      case m: SessionMessage.ToolCallResponse           => s"tool:${m.name}:${m.text}"
+      case m: SessionMessage.MultimodalToolCallResponse => s"tool:${m.name}:${m.contents}"
+      case m                                            => m.toString
+    }
+
+  /** Lower case letters and digits separated by single spaces. */
+  def normalize(text: String): String = {
+    val builder = new java.lang.StringBuilder(text.length)
+    var separator = false
+    text.codePoints().forEach { c =>
+      if (Character.isLetterOrDigit(c)) {
+        if (separator && builder.length > 0) builder.append(' ')
+        builder.appendCodePoint(Character.toLowerCase(c))
+        separator = false
+      } else separator = true
+    }
+    builder.toString
+  }
+
+  private final case class Key(scope: String, normalized: String)
+
+  private final class Entry(
+      val key: Key,
+      val vector: Array[Float],
+      val signatures: Array[Int],
+      val response: String,
+      val expiresAtNanos: Long)
+
+  // independent locality sensitive hashes, each selecting a bucket of a vector by the bits of its signature
+  private val Tables = 4
+  private val SignatureBits = 8
+
+  private val AgentKey = AttributeKey.stringKey("agent")
+  private val ResultKey = AttributeKey.stringKey("result")
+
+  private def normalized(vector: Array[Float]): Array[Float] = {
+    val norm = math.sqrt(vector.foldLeft(0.0)((sum, v) => sum + v * v))
+    if (norm == 0.0) vector else vector.map(v => (v / norm).toFloat)
+  }
+
+  private def dot(a: Array[Float], b: Array[Float]): Double = {
+    var sum = 0.0
+    var i = 0
+    while (i < a.length) {
+      sum += a(i) * b(i)
+      i += 1
+    }
+    sum
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Node-local cache of model responses by the user message of the request, shared by all agents and sessions. Responses
+ * are only used for requests of the same scope, that is the same agent, system message, tools, response type and
+ * session history.
+ *
+ * A user message that is the same after normalization is looked up directly. Otherwise, the embeddings of the user
+ * messages are compared in the buckets of a few independent random hyperplane locality sensitive hashes: in each hash,
+ * the bucket of the user message and the buckets that differ in one bit. This approximates the nearest cached user
+ * message, since very similar messages are unlikely to differ in more than one bit in all of the hashes. The least
+ * recently used responses are evicted when there are more than `maxEntries`, and expired responses when they are
+ * found.
+ */
+@InternalApi
+private[javasdk] final class SemanticResponseCache(
+    defaultThreshold: Double,
+    defaultTtl: FiniteDuration,
+    maxEntries: Int,
+    embedder: TextEmbedder,
+    meter: Meter) {
+  import SemanticResponseCache._
+
+  // guarded by this, in least recently used order
+  private val entries = new util.LinkedHashMap[Key, Entry](16, 0.75f, true)
+  private val buckets = new util.HashMap[(String, Int, Int), util.Set[Entry]]
+  private var hyperplanes: Array[Array[Float]] = Array.empty
+
+  private val lookups =
+    meter
+      .counterBuilder("akka.javasdk.agent.response-cache.lookups")
+      .setDescription("Agent response cache lookups, by agent and result (hit or miss)")
+      .build()
+
+  /** The cached response for a user message that is the same or more similar than the threshold. */
+  def lookup(componentId: String, scope: String, userMessage: String, threshold: Option[Double]): Option[String] = {
+    val key = Key(scope, normalize(userMessage))
+    val minSimilarity = threshold.getOrElse(defaultThreshold)
+    val vector = if (minSimilarity < 1.0) normalized(embedder.embed(key.normalized)) else Array.emptyFloatArray
+    val now = System.nanoTime()
+
+    val response = synchronized {
+      Option(entries.get(key)).filter(expireIfNeeded(_, now)).orElse {
+        if (vector.isEmpty) None
+        else {
+          val signatures = signaturesOf(vector)
+          val candidates = new util.HashSet[Entry]
+          var table = 0
+          while (table < Tables) {
+            val signature = signatures(table)
+            (signature +: (0 until SignatureBits).map(bit => signature ^ (1 << bit))).foreach { candidate =>
+              val bucket = buckets.get((scope, table, candidate))
+              if (bucket ne null) candidates.addAll(bucket)
+            }
+            table += 1
+          }
+          var best: Entry = null
+          var bestSimilarity = minSimilarity
+          candidates.forEach { entry =>
+            if (expireIfNeeded(entry, now)) {
+              val similarity = dot(vector, entry.vector)
+              if (similarity >= bestSimilarity) {
+                best = entry
+                bestSimilarity = similarity
+              }
+            }
+          }
+          Option(best).map { entry =>
+            entries.get(entry.key) // most recently used
+            entry
+          }
+        }
+      }.map(_.response)
+    }
+
+    lookups.add(1, Attributes.of(AgentKey, componentId, ResultKey, if (response.isDefined) "hit" else "miss"))
+    response
+  }
+
+  def put(scope: String, userMessage: String, response: String, ttl: Option[FiniteDuration]): Unit = {
+    val key = Key(scope, normalize(userMessage))
+    val vector = normalized(embedder.embed(key.normalized))
+    val expiresAtNanos = System.nanoTime() + ttl.getOrElse(defaultTtl).toNanos
+
+    synchronized {
+      val entry = new Entry(key, vector, signaturesOf(vector), response, expiresAtNanos)
+      Option(entries.put(key, entry)).foreach(removeFromBuckets)
+      var table = 0
+      while (table < Tables) {
+        buckets.computeIfAbsent((scope, table, entry.signatures(table)), _ => new util.HashSet[Entry]).add(entry)
+        table += 1
+      }
+
+      val eldest = entries.values().iterator()
+      while (entries.size > maxEntries && eldest.hasNext) {
+        val evicted = eldest.next()
+        eldest.remove()
+        removeFromBuckets(evicted)
+      }
+    }
+  }
+
+  /** Whether the entry is still valid, it is removed if not. */
+  private def expireIfNeeded(entry: Entry, now: Long): Boolean =
+    if (now - entry.expiresAtNanos < 0) true
+    else {
+      entries.remove(entry.key, entry)
+      removeFromBuckets(entry)
+      false
+    }
+
+  private def removeFromBuckets(entry: Entry): Unit = {
+    var table = 0
+    while (table < Tables) {
+      val bucketKey = (entry.key.scope, table, entry.signatures(table))
+      val bucket = buckets.get(bucketKey)
+      if (bucket ne null) {
+        bucket.remove(entry)
+        if (bucket.isEmpty) buckets.remove(bucketKey)
+      }
+      table += 1
+    }
+  }
+
+  private def signaturesOf(vector: Array[Float]): Array[Int] = {
+    if (hyperplanes.isEmpty || hyperplanes(0).length != vector.length) {
+      // fixed seed, so that the buckets are the same on all nodes and restarts
+      val random = new Random(SignatureBits)
+      hyperplanes = Array.fill(Tables * SignatureBits)(Array.fill(vector.length)(random.nextGaussian().toFloat))
+    }
+    Array.tabulate(Tables) { table =>
+      var signature = 0
+      var bit = 0
+      while (bit < SignatureBits) {
+        if (dot(hyperplanes(table * SignatureBits + bit), vector) >= 0) signature |= 1 << bit
+        bit += 1
+      }
+      signature
+    }
+  }
+}
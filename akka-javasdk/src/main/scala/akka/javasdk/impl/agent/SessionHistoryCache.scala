@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.util
+import java.util.Optional
+
+import scala.jdk.CollectionConverters._
+
+import akka.actor.typed.ActorSystem
+import akka.actor.typed.Extension
+import akka.actor.typed.ExtensionId
+import akka.annotation.InternalApi
+import akka.javasdk.agent.SessionHistory
+import akka.javasdk.agent.SessionHistoryResult
+import akka.javasdk.agent.SessionMessage
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object SessionHistoryCache extends ExtensionId[SessionHistoryCache] {
+
+  override def createExtension(system: ActorSystem[_]): SessionHistoryCache =
+    new SessionHistoryCache(system.settings.config.getBytes("akka.javasdk.agent.memory.history-cache.max-size"))
+
+  def get(system: ActorSystem[_]): SessionHistoryCache = apply(system)
+
+  private final case class CachedHistory(
+      messages: Vector[SessionMessage],
+      sequenceNumber: Long,
+      tokenUsage: SessionMessage.TokenUsage,
+      sizeInBytes: Long)
+
+  private def sizeOf(messages: Iterable[SessionMessage]): Long =
+    messages.iterator.map(_.size().toLong).sum
+}
+
+/**
+ * INTERNAL API
+ *
+ * Node-local copy of the unfiltered session histories read by agents on this node, so that each agent turn only has to
+ * fetch the messages added since the previous turn from the `SessionMemoryEntity`. Bounded by the total size of the
+ * cached messages, the least recently used sessions are evicted first.
+ */
+@InternalApi
+private[javasdk] final class SessionHistoryCache(maxSizeInBytes: Long) extends Extension {
+  import SessionHistoryCache._
+
+  private val sessions = new util.LinkedHashMap[String, CachedHistory](16, 0.75f, true)
+  private var totalSizeInBytes = 0L
+
+  def enabled: Boolean = maxSizeInBytes > 0
+
+  /** The sequence number of the cached history of the session, or `-1` when not cached. */
+  def sequenceNumber(sessionId: String): Long = synchronized {
+    val cached = sessions.get(sessionId)
+    if (cached eq null) -1L else cached.sequenceNumber
+  }
+
+  /**
+   * Apply a delta to the cached history of the session and return the full unfiltered history, or empty when the delta
+   * is not relative to the cached history, for example after a concurrent update of the same session.
+   */
+  def applyDelta(sessionId: String, delta: SessionHistoryResult.Delta): Optional[SessionHistory] = synchronized {
+    val deltaMessages = delta.messages().asScala.toVector
+    val cached = sessions.get(sessionId)
+
+    val updated =
+      if (delta.sinceSequenceNr() < 0)
+        Some(CachedHistory(deltaMessages, delta.sequenceNumber(), delta.tokenUsage(), sizeOf(deltaMessages)))
+      else if ((cached ne null) && cached.sequenceNumber == delta.sinceSequenceNr() &&
+        delta.historySize() <= cached.messages.size + deltaMessages.size) {
+        val dropped = cached.messages.size + deltaMessages.size - delta.historySize()
+        val (droppedMessages, kept) = cached.messages.splitAt(dropped)
+        Some(
+          CachedHistory(
+            kept ++ deltaMessages,
+            delta.sequenceNumber(),
+            delta.tokenUsage(),
+            cached.sizeInBytes - sizeOf(droppedMessages) + sizeOf(deltaMessages)))
+      } else None
+
+    updated match {
+      case Some(history) =>
+        put(sessionId, history)
+        Optional.of(new SessionHistory(history.messages.asJava, history.sequenceNumber, history.tokenUsage))
+      case None =>
+        remove(sessionId)
+        Optional.empty()
+    }
+  }
+
+  def remove(sessionId: String): Unit = synchronized {
+    val removed = sessions.remove(sessionId)
+    if (removed ne null) totalSizeInBytes -= removed.sizeInBytes
+  }
+
+  private def put(sessionId: String, history: CachedHistory): Unit = {
+    remove(sessionId)
+    if (history.sizeInBytes <= maxSizeInBytes) {
+      sessions.put(sessionId, history)
+      totalSizeInBytes += history.sizeInBytes
+      val leastRecentlyUsed = sessions.values().iterator()
+      while (totalSizeInBytes > maxSizeInBytes && leastRecentlyUsed.hasNext) {
+        totalSizeInBytes -= leastRecentlyUsed.next().sizeInBytes
+        leastRecentlyUsed.remove()
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.util
+import java.util.Optional
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.function.Supplier
+
+import scala.concurrent.duration.FiniteDuration
+import scala.jdk.DurationConverters._
+import scala.util.control.NonFatal
+
+import akka.Done
+import akka.actor.typed.ActorSystem
+import akka.actor.typed.Extension
+import akka.actor.typed.ExtensionId
+import akka.annotation.InternalApi
+import org.slf4j.LoggerFactory
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object SessionMemoryCompactor extends ExtensionId[SessionMemoryCompactor] {
+
+  override def createExtension(system: ActorSystem[_]): SessionMemoryCompactor = {
+    val config = system.settings.config.getConfig("akka.javasdk.agent.memory")
+    new SessionMemoryCompactor(
+      maxSizeInBytes = config.getBytes("limited-window.max-size"),
+      defaultThreshold = config.getDouble("compaction.threshold"),
+      minInterval = config.getDuration("compaction.min-interval").toScala,
+      maxConcurrent = config.getInt("compaction.max-concurrent"))
+  }
+
+  def get(system: ActorSystem[_]): SessionMemoryCompactor = apply(system)
+}
+
+/**
+ * INTERNAL API
+ *
+ * Decides when the session histories read on this node are compacted and runs the compactions in the background, at
+ * most one at a time per session, at most `maxConcurrent` at a time on the node, and each session at most once per
+ * `minInterval`. A compaction that would exceed these limits is skipped rather than queued, since the next interaction
+ * of the session triggers it again.
+ */
+@InternalApi
+private[javasdk] final class SessionMemoryCompactor(
+    maxSizeInBytes: Long,
+    defaultThreshold: Double,
+    minInterval: FiniteDuration,
+    maxConcurrent: Int)
+    extends Extension {
+
+  private val log = LoggerFactory.getLogger(classOf[SessionMemoryCompactor])
+  private val minIntervalNanos = minInterval.toNanos
+  // sessions by the time that their last compaction started, oldest first
+  private val startedAt = new util.LinkedHashMap[String, java.lang.Long]
+  private val inFlight = new util.HashSet[String]
+
+  /**
+   * Whether a history of the given size, or with dropped messages, should be compacted. The threshold is relative to
+   * the max size of the memory window of the session, or the configured max size when that is not known (0).
+   */
+  def thresholdReached(
+      sizeInBytes: Long,
+      truncated: Boolean,
+      threshold: Optional[java.lang.Double],
+      sessionMaxSizeInBytes: Long): Boolean = {
+    val maxSize = if (sessionMaxSizeInBytes > 0) sessionMaxSizeInBytes else maxSizeInBytes
+    truncated || sizeInBytes >= maxSize * threshold.orElse(defaultThreshold)
+  }
+
+  /**
+   * Start the compaction of the session unless it is already running, ran less than `minInterval` ago, or there are
+   * already `maxConcurrent` compactions running.
+   *
+   * @return whether the compaction was started
+   */
+  def compact(sessionId: String, compaction: Supplier[CompletionStage[Done]]): Boolean = {
+    val start = synchronized {
+      val now = System.nanoTime()
+      val oldest = startedAt.values().iterator()
+      while (oldest.hasNext && now - oldest.next() >= minIntervalNanos) oldest.remove()
+
+      if (inFlight.contains(sessionId) || startedAt.containsKey(sessionId) || inFlight.size >= maxConcurrent) false
+      else {
+        inFlight.add(sessionId)
+        startedAt.put(sessionId, now)
+        true
+      }
+    }
+
+    if (start) {
+      log.debug("Compacting the history of sessionId [{}]", sessionId)
+      val result =
+        try compaction.get()
+        catch { case NonFatal(e) => CompletableFuture.failedFuture[Done](e) }
+      result.whenComplete { (_: Done, error: Throwable) =>
+        synchronized(inFlight.remove(sessionId))
+        if (error ne null) log.warn(s"Failed to compact the history of sessionId [$sessionId]", error)
+        else log.debug("Compacted the history of sessionId [{}]", sessionId)
+      }
+    }
+    start
+  }
+}
@@ -20,9 +20,18 @@ import akka.runtime.sdk.spi.SpiAgent
 
 /**
  * INTERNAL API
+ *
+ * The results of tools annotated with `@CacheToolResult` are served from the node-local `resultCache` when called again
+ * with the same arguments, within the same `instanceScope` for the tools of the agent itself and of tool instances. The
+ * execution time of each call is recorded in the `metrics` of the agent.
  */
 @InternalApi
-class ToolExecutor(functionTools: Map[String, FunctionToolInvoker], serializer: Serializer) {
+class ToolExecutor(
+    functionTools: Map[String, FunctionToolInvoker],
+    serializer: Serializer,
+    resultCache: Option[ToolResultCache] = None,
+    instanceScope: String = "",
+    metrics: Option[AgentMetrics.ForAgent] = None) {
 
   /**
    * Executes a tool call command synchronously, returning its result as text.
@@ -92,22 +101,36 @@ class ToolExecutor(functionTools: Map[String, FunctionToolInvoker], serializer:
     val mapper = serializer.objectMapper
     val jsonNode = mapper.readTree(request.arguments)
 
-    val methodInput =
-      toolInvoker.paramNames.zipWithIndex.map { case (name, index) =>
-        // assume that the paramName in the method matches a node from the json 'content'
-        val node = jsonNode.get(name)
-        val typ = toolInvoker.types(index)
-        val javaType = mapper.getTypeFactory.constructType(typ)
-        val deserialized = mapper.treeToValue(node, javaType).asInstanceOf[Any]
-
-        if (deserialized == null && classOf[Optional[_]].isAssignableFrom(javaType.getRawClass)) {
-          Optional.ofNullable(deserialized)
-        } else {
-          deserialized
+    // assume that the paramName in the method matches a node from the json 'content'
+    val argumentNodes = toolInvoker.paramNames.map(name => jsonNode.get(name))
+
+    def call(): Any = {
+      val methodInput =
+        argumentNodes.zipWithIndex.map { case (node, index) =>
+          val typ = toolInvoker.types(index)
+          val javaType = mapper.getTypeFactory.constructType(typ)
+          val deserialized = mapper.treeToValue(node, javaType).asInstanceOf[Any]
+
+          if (deserialized == null && classOf[Optional[_]].isAssignableFrom(javaType.getRawClass)) {
+            Optional.ofNullable(deserialized)
+          } else {
+            deserialized
+          }
         }
-      }
-
-    (toolInvoker, toolInvoker.invoke(methodInput))
+      toolInvoker.invoke(methodInput)
+    }
+
+    val start = System.nanoTime()
+    val toolResult =
+      try {
+        (resultCache, toolInvoker.cachePolicy) match {
+          case (Some(cache), Some(policy)) =>
+            val arguments = ToolResultCache.canonicalArguments(argumentNodes.toSeq)
+            cache.getOrCall(policy, instanceScope, arguments, () => call())
+          case _ => call()
+        }
+      } finally metrics.foreach(_.recordToolCall(request.name, start))
+    (toolInvoker, toolResult)
   }
 
   private def textResult(toolInvoker: FunctionToolInvoker, toolResult: Any): String =
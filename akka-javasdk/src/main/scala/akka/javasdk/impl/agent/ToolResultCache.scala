@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.lang.reflect.Method
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+import scala.jdk.CollectionConverters._
+
+import akka.annotation.InternalApi
+import akka.javasdk.annotations.CacheToolResult
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.node.TextNode
+import io.opentelemetry.api.common.AttributeKey
+import io.opentelemetry.api.common.Attributes
+import io.opentelemetry.api.metrics.Meter
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+private[javasdk] object ToolResultCache {
+
+  /**
+   * The caching of the results of a tool method, from its [[CacheToolResult]] annotation. The results of `perInstance`
+   * tools, the tools of the agent itself and tool objects passed as instances, may depend on the state of the instance
+   * and are only shared within the same session.
+   */
+  final case class Policy(toolId: String, ttlNanos: Long, maxEntries: Int, perInstance: Boolean = false)
+
+  def policyFor(method: Method, perInstance: Boolean): Option[Policy] =
+    Option(method.getAnnotation(classOf[CacheToolResult])).collect {
+      case cache if cache.ttlSeconds() > 0 && cache.maxEntries() > 0 =>
+        Policy(toolId(method), TimeUnit.SECONDS.toNanos(cache.ttlSeconds()), cache.maxEntries(), perInstance)
+    }
+
+  /** The full signature of the tool method, so that overloaded tool methods don't share results. */
+  private def toolId(method: Method): String =
+    method.getParameterTypes
+      .map(_.getName)
+      .mkString(s"${method.getDeclaringClass.getName}.${method.getName}(", ",", ")")
+
+  /**
+   * The arguments of a tool call as JSON with the fields of objects in name order, so that the same arguments give the
+   * same key regardless of how the model ordered them.
+   */
+  def canonicalArguments(arguments: Seq[JsonNode]): String = {
+    val builder = new java.lang.StringBuilder
+    arguments.foreach { argument =>
+      appendCanonical(argument, builder)
+      builder.append('\n')
+    }
+    builder.toString
+  }
+
+  private def appendCanonical(node: JsonNode, builder: java.lang.StringBuilder): Unit =
+    if (node eq null) builder.append("null")
+    else if (node.isObject) {
+      builder.append('{')
+      node.fieldNames().asScala.toSeq.sorted.zipWithIndex.foreach { case (name, index) =>
+        if (index > 0) builder.append(',')
+        builder.append(TextNode.valueOf(name).toString).append(':')
+        appendCanonical(node.get(name), builder)
+      }
+      builder.append('}')
+    } else if (node.isArray) {
+      builder.append('[')
+      node.elements().asScala.zipWithIndex.foreach { case (element, index) =>
+        if (index > 0) builder.append(',')
+        appendCanonical(element, builder)
+      }
+      builder.append(']')
+    } else builder.append(node.toString)
+
+  private final class Entry(val result: Any, val loadedAtNanos: Long)
+
+  private final class ToolCache(val policy: Policy) {
+    // guarded by this, in least recently used order
+    val entries: util.LinkedHashMap[String, Entry] = new util.LinkedHashMap[String, Entry](16, 0.75f, true) {
+      override def removeEldestEntry(eldest: util.Map.Entry[String, Entry]): Boolean = size() > policy.maxEntries
+    }
+    val hitAttributes: Attributes = Attributes.of(ToolKey, policy.toolId, ResultKey, "hit")
+    val missAttributes: Attributes = Attributes.of(ToolKey, policy.toolId, ResultKey, "miss")
+  }
+
+  private val ToolKey = AttributeKey.stringKey("tool")
+  private val ResultKey = AttributeKey.stringKey("result")
+}
+
+/**
+ * INTERNAL API
+ *
+ * Node-local cache of the results of the tools annotated with [[CacheToolResult]], shared by all agents. Each tool has
+ * its own bounded cache, when there are more than `maxEntries` results the least recently used result is evicted. The
+ * results of per instance tools are keyed by the `instanceScope` as well, the session id of the agent.
+ */
+@InternalApi
+private[javasdk] final class ToolResultCache(meter: Meter) {
+  import ToolResultCache._
+
+  private val caches = new ConcurrentHashMap[String, ToolCache]()
+
+  private val lookups =
+    meter
+      .counterBuilder("akka.javasdk.agent.tool.cache.lookups")
+      .setDescription("Tool result cache lookups, by tool and result (hit or miss)")
+      .build()
+
+  /** The cached result of the tool for the arguments, or the result of `call`, which is then cached. */
+  def getOrCall(policy: Policy, instanceScope: String, arguments: String, call: () => Any): Any = {
+    val cache = caches.computeIfAbsent(policy.toolId, _ => new ToolCache(policy))
+    val key = if (policy.perInstance) s"$instanceScope\n$arguments" else arguments
+    val now = System.nanoTime()
+    val cached = cache.synchronized {
+      val entry = cache.entries.get(key)
+      if (entry eq null) None
+      else if (now - entry.loadedAtNanos < policy.ttlNanos) Some(entry.result)
+      else {
+        cache.entries.remove(key)
+        None
+      }
+    }
+    cached match {
+      case Some(result) =>
+        lookups.add(1, cache.hitAttributes)
+        result
+      case None =>
+        lookups.add(1, cache.missAttributes)
+        val result = call()
+        val entry = new Entry(result, System.nanoTime())
+        cache.synchronized(cache.entries.put(key, entry))
+        result
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent.task
+
+import java.util
+
+import scala.collection.immutable.HashMap
+import scala.collection.immutable.HashSet
+import scala.jdk.CollectionConverters._
+
+import akka.annotation.InternalApi
+
+/**
+ * INTERNAL API
+ *
+ * The tasks of a [[BacklogState]]. Backed by immutable hash tries, so that each state transition shares structure with
+ * the previous state rather than copying all tasks, with an index of the unclaimed tasks.
+ *
+ * Serialized as any other `java.util.Map` by Jackson, a deserialized map is converted back with [[BacklogTasks.from]].
+ */
+@InternalApi
+object BacklogTasks {
+
+  val empty: BacklogTasks = new BacklogTasks(HashMap.empty, HashSet.empty)
+
+  def from(tasks: util.Map[String, BacklogState.Entry]): BacklogTasks =
+    tasks match {
+      case null                       => empty
+      case backlogTasks: BacklogTasks => backlogTasks
+      case other                      =>
+        val entries = HashMap.from(other.asScala)
+        new BacklogTasks(entries, unclaimedIn(entries))
+    }
+
+  private def unclaimedIn(entries: HashMap[String, BacklogState.Entry]): HashSet[String] =
+    entries.iterator.collect { case (taskId, entry) if entry.claimedBy.isEmpty => taskId }.to(HashSet)
+}
+
+/**
+ * INTERNAL API
+ */
+@InternalApi
+final class BacklogTasks private (
+    entries: HashMap[String, BacklogState.Entry],
+    unclaimed: HashSet[String])
+    extends util.AbstractMap[String, BacklogState.Entry] {
+
+  // read-only Java view of the entries, for iteration and serialization
+  private lazy val javaEntries: util.Map[String, BacklogState.Entry] = entries.asJava
+
+  override def entrySet(): util.Set[util.Map.Entry[String, BacklogState.Entry]] = javaEntries.entrySet()
+
+  override def size(): Int = entries.size
+
+  override def isEmpty(): Boolean = entries.isEmpty
+
+  override def containsKey(key: Any): Boolean =
+    key match {
+      case taskId: String => entries.contains(taskId)
+      case _              => false
+    }
+
+  override def get(key: Any): BacklogState.Entry =
+    key match {
+      case taskId: String => entries.getOrElse(taskId, null)
+      case _              => null
+    }
+
+  def withEntry(entry: BacklogState.Entry): BacklogTasks =
+    new BacklogTasks(
+      entries.updated(entry.taskId, entry),
+      if (entry.claimedBy.isPresent) unclaimed - entry.taskId else unclaimed + entry.taskId)
+
+  def withUnclaimedRemoved(): BacklogTasks =
+    if (unclaimed.isEmpty) this
+    else new BacklogTasks(entries.removedAll(unclaimed), HashSet.empty)
+
+  def hasUnclaimed: Boolean = unclaimed.nonEmpty
+
+  def unclaimedTaskIds(): util.List[String] = util.List.copyOf(unclaimed.asJava)
+
+  def claimedTaskIds(): util.List[String] =
+    entries.keysIterator.filterNot(unclaimed.contains).toList.asJava
+
+}
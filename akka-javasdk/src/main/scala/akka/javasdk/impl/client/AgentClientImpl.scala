@@ -24,6 +24,7 @@ import akka.javasdk.client.ComponentStreamMethodRef1
 import akka.javasdk.client.DynamicMethodRef
 import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.agent.AgentMetrics
 import akka.javasdk.impl.reflection.Reflect
 import akka.javasdk.impl.reflection.Reflect.isCommandHandlerCandidate
 import akka.javasdk.impl.serialization.Serializer
@@ -31,6 +32,7 @@ import akka.runtime.sdk.spi.AgentRequest
 import akka.runtime.sdk.spi.AgentType
 import akka.runtime.sdk.spi.BytesPayload
 import akka.runtime.sdk.spi.{ AgentClient => RuntimeAgentClient }
+import akka.stream.scaladsl.Source
 
 /**
  * INTERNAL API
@@ -158,14 +160,15 @@ private[javasdk] final case class AgentClientImpl(
     import agentMethodProperties._
 
     () =>
-      agentClient
-        .sendStream(
-          new AgentRequest(componentId, sessionId, methodName, BytesPayload.empty, MetadataImpl.toSpi(callMetadata)))
-        .map { agentResult =>
-          // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
-          serializer.fromBytes(classOf[String], agentResult.payload)
-        }
-        .asJava
+      timed(
+        componentId,
+        agentClient
+          .sendStream(
+            new AgentRequest(componentId, sessionId, methodName, BytesPayload.empty, MetadataImpl.toSpi(callMetadata)))
+          .map { agentResult =>
+            // Note: not Kalix JSON encoded here, regular/normal utf8 bytes
+            serializer.fromBytes(classOf[String], agentResult.payload)
+          }).asJava
   }
 
   override def tokenStream[T, A1](
@@ -176,16 +179,28 @@ private[javasdk] final case class AgentClientImpl(
     (arg: A1) =>
       // Agents use JSON for all data including protobuf messages (using built-in protobuf JSON rendering)
       val serializedPayload = serializer.toBytesAsJson(arg)
-      agentClient
-        .sendStream(
-          new AgentRequest(componentId, sessionId, methodName, serializedPayload, MetadataImpl.toSpi(callMetadata)))
-        .map { agentResult =>
-          serializer.fromBytes(classOf[String], agentResult.payload)
-        }
-        .asJava
+      timed(
+        componentId,
+        agentClient
+          .sendStream(
+            new AgentRequest(componentId, sessionId, methodName, serializedPayload, MetadataImpl.toSpi(callMetadata)))
+          .map { agentResult =>
+            serializer.fromBytes(classOf[String], agentResult.payload)
+          }).asJava
 
   }
 
+  /** Records the time until the first token, and between the tokens, of each materialization of the stream. */
+  private def timed[Mat](componentId: String, tokens: Source[String, Mat]): Source[String, Mat] = {
+    val metrics = AgentMetrics.get(system).forAgent(componentId)
+    tokens.statefulMap(() => (System.nanoTime(), true))(
+      { case ((previous, first), token) =>
+        if (first) metrics.recordTimeToFirstToken(previous) else metrics.recordInterTokenGap(previous)
+        ((System.nanoTime(), false), token)
+      },
+      _ => None)
+  }
+
   override def dynamicCall[A1, R](agentId: String): DynamicMethodRef[A1, R] = {
     import MetadataImpl.toSpi
 
@@ -73,19 +73,25 @@ private[impl] final class ConsumerImpl[C <: Consumer](
   private implicit val executionContext: ExecutionContext = sdkExecutionContext
   implicit val system: ActorSystem = _system
 
-  private val resultSerializer =
-    // producing to topic, external json format, so mapper configurable by user
-    if (consumerDestination.exists(_.isInstanceOf[TopicDestination])) new Serializer(JsonSupport.getObjectMapper)
-    // non-topic is internal, so non-configurable (also means no output json is ever passed anywhere though)
+  private val consumesFromTopic = consumerSource.isInstanceOf[TopicSource]
+  private val producesToTopic = consumerDestination.exists(_.isInstanceOf[TopicDestination])
+
+  // consuming from or producing to topic, external json format, so mapper configurable by user,
+  // created once and shared by all messages, so that type hints are only resolved once
+  private val topicSerializer =
+    if (consumesFromTopic || producesToTopic) new Serializer(JsonSupport.getObjectMapper)
     else internalSerializer
 
-  private def createRouter(consumer: C): ReflectiveConsumerRouter[C] =
+  // non-topic is internal, so non-configurable (also means no output json is ever passed anywhere though)
+  private val resultSerializer = if (producesToTopic) topicSerializer else internalSerializer
+
+  // the routing is the same for all messages, only the consumer instance is created per message
+  private val router: ReflectiveConsumerRouter[C] =
     new ReflectiveConsumerRouter[C](
-      consumer,
       componentDescriptor.methodInvokers,
       internalSerializer,
-      ignoreUnknown,
-      consumesFromTopic = consumerSource.isInstanceOf[TopicSource])
+      if (consumesFromTopic) topicSerializer else internalSerializer,
+      ignoreUnknown)
 
   override def handleMessage(message: Message): Future[Effect] = {
     val metadata = {
@@ -117,8 +123,8 @@ private[impl] final class ConsumerImpl[C <: Consumer](
       val consumer = factory(messageContext)
 
       val payload: BytesPayload = message.payload.getOrElse(throw new IllegalArgumentException("No message payload"))
-      val effect = createRouter(consumer)
-        .handleCommand(MessageEnvelope.of(payload, messageContext.metadata), messageContext)
+      val effect =
+        router.handleCommand(consumer, MessageEnvelope.of(payload, messageContext.metadata), messageContext)
       toSpiEffect(message, effect)
     } catch {
       case NonFatal(ex) =>
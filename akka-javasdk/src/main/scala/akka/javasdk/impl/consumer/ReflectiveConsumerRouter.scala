@@ -7,7 +7,6 @@ package akka.javasdk.impl.consumer
 import java.util.Optional
 
 import akka.annotation.InternalApi
-import akka.javasdk.JsonSupport
 import akka.javasdk.consumer.Consumer
 import akka.javasdk.consumer.MessageContext
 import akka.javasdk.consumer.MessageEnvelope
@@ -22,22 +21,40 @@ import akka.runtime.sdk.spi.BytesPayload
  * INTERNAL API
  */
 @InternalApi
+private[impl] object ReflectiveConsumerRouter {
+
+  private final class Handler(val invoker: MethodInvoker) {
+    // resolved once, rather than for every message
+    val parameterType: Class[AnyRef] =
+      if (invoker.method.getParameterCount == 0) null
+      else invoker.method.getParameterTypes.head.asInstanceOf[Class[AnyRef]]
+  }
+}
+
+/**
+ * INTERNAL API
+ *
+ * Created once per consumer component, the consumer instance for each message is passed to `handleCommand`.
+ *
+ * @param serializer
+ *   for decoding the message payloads, configurable by the user when consuming from a topic, since that is an external
+ *   json format
+ */
+@InternalApi
 private[impl] class ReflectiveConsumerRouter[A <: Consumer](
-    consumer: A,
     methodInvokers: Map[String, MethodInvoker],
     internalSerializer: Serializer,
-    ignoreUnknown: Boolean,
-    consumesFromTopic: Boolean) {
+    serializer: Serializer,
+    ignoreUnknown: Boolean) {
+  import ReflectiveConsumerRouter._
 
-  private val serializer =
-    // consuming from topic, external json format, so mapper configurable by user
-    if (consumesFromTopic) new Serializer(JsonSupport.getObjectMapper)
-    //  non-topic is internal, so non-configurable
-    else internalSerializer
+  private val handlers: Map[String, Handler] = methodInvokers.map { case (inputTypeUrl, invoker) =>
+    inputTypeUrl -> new Handler(invoker)
+  }
 
   private val rawPayloadInvoker: Option[MethodInvoker] = methodInvokers.get(BytesPrimitive.fullName)
 
-  def handleCommand(message: MessageEnvelope[BytesPayload], context: MessageContext): Consumer.Effect = {
+  def handleCommand(consumer: A, message: MessageEnvelope[BytesPayload], context: MessageContext): Consumer.Effect = {
     // only set, never cleared, to allow access from other threads in async callbacks in the consumer
     // the same handler and consumer instance is expected to only ever be invoked for a single message
     consumer._internalSetMessageContext(Optional.of(context))
@@ -47,20 +64,17 @@ private[impl] class ReflectiveConsumerRouter[A <: Consumer](
     val inputTypeUrl =
       internalSerializer.json.removeVersion(internalSerializer.json.replaceLegacyJsonPrefix(payload.contentType))
 
-    val methodInvoker = methodInvokers.get(inputTypeUrl)
-    methodInvoker match {
-      case Some(invoker) =>
+    handlers.get(inputTypeUrl) match {
+      case Some(handler) =>
         inputTypeUrl match {
           case BytesPayload.EmptyContentType | ProtobufEmptyTypeUrl =>
-            invoker
+            handler.invoker
               .invoke(consumer)
               .asInstanceOf[Consumer.Effect]
           case _ =>
-            val decodedPayload = ParameterExtractors.decodeParamPossiblySealed(
-              payload,
-              invoker.method.getParameterTypes.head.asInstanceOf[Class[AnyRef]],
-              serializer)
-            invoker
+            val decodedPayload =
+              ParameterExtractors.decodeParamPossiblySealed(payload, handler.parameterType, serializer)
+            handler.invoker
               .invokeDirectly(consumer, decodedPayload)
               .asInstanceOf[Consumer.Effect]
         }
@@ -75,6 +75,32 @@ private[impl] object EventSourcedEntityImpl {
       extends EventSourcedEntityContextImpl(entityId, selfRegion)
       with EventContext
 
+  /**
+   * Event context for replaying journal events, one instance is reused for all events applied to the same entity
+   * instance, only valid until the event handler returns. The metadata is only materialized if the event handler
+   * actually asks for it.
+   */
+  private final class ReplayEventContext(entityId: String, selfRegion: String)
+      extends EventSourcedEntityContextImpl(entityId, selfRegion)
+      with EventContext {
+    private var currentSequenceNumber = 0L
+    private var spiMetadata: SpiMetadata = SpiMetadata.empty
+    private var materializedMetadata: Metadata = null
+
+    def reset(sequenceNumber: Long, metadata: SpiMetadata): Unit = {
+      currentSequenceNumber = sequenceNumber
+      spiMetadata = metadata
+      materializedMetadata = null
+    }
+
+    override def sequenceNumber(): Long = currentSequenceNumber
+
+    override def metadata(): Metadata = {
+      if (materializedMetadata eq null) materializedMetadata = MetadataImpl.of(spiMetadata)
+      materializedMetadata
+    }
+  }
+
 }
 
 /**
@@ -90,19 +116,27 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
     entityStateType: Class[S],
     regionInfo: RegionInfo,
     allowedProtoEventTypes: Seq[Class[_]],
-    factory: EventSourcedEntityContext => ES)
+    factory: EventSourcedEntityContext => ES,
+    onPersist: () => Unit = () => ())
     extends SpiEventSourcedEntity {
   import EventSourcedEntityImpl._
 
   private val router: ReflectiveEventSourcedEntityRouter[AnyRef, AnyRef, EventSourcedEntity[AnyRef, AnyRef]] = {
     val context = new EventSourcedEntityContextImpl(entityId, regionInfo.selfRegion)
-    new ReflectiveEventSourcedEntityRouter[S, E, ES](factory(context), componentDescriptor.methodInvokers, serializer)
+    new ReflectiveEventSourcedEntityRouter[S, E, ES](
+      factory(context),
+      componentDescriptor.methodInvokers,
+      componentDescriptor.generatedRouter,
+      serializer)
       .asInstanceOf[ReflectiveEventSourcedEntityRouter[AnyRef, AnyRef, EventSourcedEntity[AnyRef, AnyRef]]]
   }
 
   private def entity: EventSourcedEntity[AnyRef, AnyRef] =
     router.entity
 
+  private lazy val replayEventContext = new ReplayEventContext(entityId, regionInfo.selfRegion)
+  private lazy val replayEventContextOption: Optional[EventContext] = Optional.of(replayEventContext)
+
   /**
    * Validate that events are of allowed types when @ProtoEventTypes is used. Throws IllegalArgumentException if an
    * event is not one of the declared types.
@@ -201,6 +235,10 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
             Future.successful(new SpiEventSourcedEntity.ErrorEffect(err))
           case Right((reply, metadata)) =>
             val serializedEvents = events.map(event => serializer.toBytes(event)).toVector
+            // Called before the events are persisted, there is no callback once they are. The entity does not handle
+            // other commands until the persist has completed, so a read started after this sees the persisted state,
+            // and the cache does not keep reads that were in flight. A failed persist only costs a reload.
+            onPersist()
 
             Future.successful(
               new SpiEventSourcedEntity.PersistEffect(
@@ -262,8 +300,17 @@ private[impl] final class EventSourcedEntityImpl[S, E, ES <: EventSourcedEntity[
       eventEnv: SpiEventSourcedEntity.EventEnvelope): SpiEventSourcedEntity.State = {
     // all event types are preemptively registered to the serializer by the ReflectiveEventSourcedEntityRouter
     val event = serializer.fromBytes(eventEnv.payload)
-    val eventMetadata = MetadataImpl.of(eventEnv.eventMetadata)
-    entityHandleEvent(state, event, eventMetadata, eventEnv.sequenceNumber)
+    // the same event context instance is used for all replayed events, updated in place
+    replayEventContext.reset(eventEnv.sequenceNumber, eventEnv.eventMetadata)
+    entity._internalSetEventContext(replayEventContextOption)
+    val clearState = entity._internalSetCurrentState(state, false)
+    try {
+      router.handleEvent(event)
+    } finally {
+      entity._internalSetEventContext(Optional.empty())
+      if (clearState)
+        entity._internalClearCurrentState()
+    }
   }
 
   private def entityHandleEvent(
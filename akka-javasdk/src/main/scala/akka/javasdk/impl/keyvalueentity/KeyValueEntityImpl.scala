@@ -84,7 +84,11 @@ private[impl] final class KeyValueEntityImpl[S, KV <: KeyValueEntity[S]](
 
   private val router: ReflectiveKeyValueEntityRouter[AnyRef, KeyValueEntity[AnyRef]] = {
     val context = new KeyValueEntityContextImpl(entityId, regionInfo.selfRegion)
-    new ReflectiveKeyValueEntityRouter[S, KV](factory(context), componentDescriptor.methodInvokers, serializer)
+    new ReflectiveKeyValueEntityRouter[S, KV](
+      factory(context),
+      componentDescriptor.methodInvokers,
+      componentDescriptor.generatedRouter,
+      serializer)
       .asInstanceOf[ReflectiveKeyValueEntityRouter[AnyRef, KeyValueEntity[AnyRef]]]
   }
 
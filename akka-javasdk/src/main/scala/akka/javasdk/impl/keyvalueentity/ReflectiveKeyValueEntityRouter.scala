@@ -5,7 +5,8 @@
 package akka.javasdk.impl.keyvalueentity
 
 import akka.annotation.InternalApi
-import akka.javasdk.impl.CommandSerialization
+import akka.javasdk.impl.GeneratedCommandDecoder
+import akka.javasdk.impl.GeneratedCommandRouter
 import akka.javasdk.impl.HandlerNotFoundException
 import akka.javasdk.impl.MethodInvoker
 import akka.javasdk.impl.serialization.Serializer
@@ -19,8 +20,11 @@ import akka.runtime.sdk.spi.BytesPayload
 private[impl] class ReflectiveKeyValueEntityRouter[S, KV <: KeyValueEntity[S]](
     val entity: KV,
     methodInvokers: Map[String, MethodInvoker],
+    generatedRouter: Option[GeneratedCommandRouter[AnyRef]],
     serializer: Serializer) {
 
+  private val generatedCommandDecoder = new GeneratedCommandDecoder(entity.getClass, methodInvokers.keySet, serializer)
+
   private def methodInvokerLookup(commandName: String): MethodInvoker =
     methodInvokers.get(commandName) match {
       case Some(handler) => handler
@@ -28,19 +32,18 @@ private[impl] class ReflectiveKeyValueEntityRouter[S, KV <: KeyValueEntity[S]](
         throw new HandlerNotFoundException("command", commandName, entity.getClass, methodInvokers.keySet)
     }
 
-  def handleCommand(commandName: String, command: BytesPayload): KeyValueEntity.Effect[_] = {
+  private def invokeReflectively(commandName: String, command: BytesPayload): AnyRef =
+    methodInvokerLookup(commandName).invokeCommand(entity, command)
 
-    val methodInvoker = methodInvokerLookup(commandName)
+  def handleCommand(commandName: String, command: BytesPayload): KeyValueEntity.Effect[_] = {
 
     if (serializer.isJson(command) || serializer.isProtobuf(command) || command.isEmpty) {
       // - BytesPayload.empty - there is no real command, and we are calling a method with arity 0
       // - BytesPayload with json - we deserialize it and call the method
       // - BytesPayload with protobuf - we deserialize it and call the method
-      val deserializedCommand =
-        CommandSerialization.deserializeComponentClientCommand(methodInvoker.method, command, serializer)
-      val result = deserializedCommand match {
-        case None          => methodInvoker.invoke(entity)
-        case Some(command) => methodInvoker.invokeDirectly(entity, command)
+      val result = generatedRouter match {
+        case Some(router) => router.handleCommand(entity, commandName, command, generatedCommandDecoder)
+        case None         => invokeReflectively(commandName, command)
       }
       result.asInstanceOf[KeyValueEntity.Effect[_]]
     } else {
@@ -36,6 +36,7 @@ import com.fasterxml.jackson.databind.DeserializationContext
 import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.JsonMappingException
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectReader
 import com.fasterxml.jackson.databind.SerializationFeature
 import com.fasterxml.jackson.databind.SerializerProvider
 import com.fasterxml.jackson.databind.jsontype.TypeDeserializer
@@ -52,6 +53,24 @@ object JsonSerializer {
 
   final case class TypeHint(currenTypeHintWithVersion: String, allTypeHints: List[String])
 
+  /**
+   * Decoding metadata for a class: a reader for the class and, if it is annotated with `@Migration`, the migration
+   * instance and its versions.
+   */
+  private[impl] final class ClassDecoder(
+      val reader: ObjectReader,
+      val migration: Option[JsonMigration],
+      val currentVersion: Int,
+      val supportedForwardVersion: Int)
+
+  private def parseContentTypeVersion(contentType: String): Int = {
+    val versionSeparatorIndex = contentType.lastIndexOf('#')
+    if (versionSeparatorIndex > 0) {
+      contentType.substring(versionSeparatorIndex + 1).toInt
+    } else
+      0
+  }
+
   def newObjectMapperWithDefaults(): ObjectMapper = {
     val mapper = new ObjectMapper
 
@@ -146,6 +165,20 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
   private val typeHints: ConcurrentMap[Class[_], TypeHint] = new ConcurrentHashMap()
   val reversedTypeHints: ConcurrentMap[String, Class[_]] = new ConcurrentHashMap()
 
+  // resolved once per class rather than for every decoded event, snapshot or command
+  private val classDecoders: ClassValue[ClassDecoder] = new ClassValue[ClassDecoder] {
+    override protected def computeValue(clazz: Class[_]): ClassDecoder = {
+      val migration = Option(clazz.getAnnotation(classOf[Migration])).map(_.value().getConstructor().newInstance())
+      new ClassDecoder(
+        objectMapper.readerFor(clazz),
+        migration,
+        migration.fold(0)(_.currentVersion()),
+        migration.fold(0)(_.supportedForwardVersion()))
+    }
+  }
+
+  private val contentTypeVersions: ConcurrentMap[String, Integer] = new ConcurrentHashMap()
+
   override def toString: String = s"JsonSerializer: ${typeHints.keySet().size()} registered types"
 
   def toBytes(value: Any): BytesPayload = {
@@ -169,28 +202,46 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
         parameterizedType.getRawType.asInstanceOf[Class[T]]
       case other => other.asInstanceOf[Class[T]]
     }
+    decode(classDecoders.get(clazz), expectedType, clazz, bytesPayload)
+  }
+
+  def fromBytes[T](expectedType: Class[T], bytesPayload: BytesPayload): T = {
+    validateIsJson(bytesPayload)
+    fromBytes(expectedType.asInstanceOf[Type], bytesPayload).asInstanceOf[T]
+  }
+
+  /**
+   * The decoder for a class, for callers that decode the same type over and over and want to look it up once, to use
+   * with `fromBytes(decoder, expectedType, bytesPayload)`.
+   */
+  private[impl] def classDecoderFor(clazz: Class[_]): ClassDecoder =
+    classDecoders.get(clazz)
+
+  private[impl] def fromBytes[T](decoder: ClassDecoder, expectedType: Class[T], bytesPayload: BytesPayload): T = {
+    validateIsJson(bytesPayload)
+    decode(decoder, expectedType, expectedType, bytesPayload)
+  }
+
+  private def decode[T](decoder: ClassDecoder, expectedType: Type, clazz: Class[T], bytesPayload: BytesPayload): T = {
     try {
-      val migrationAnnotation = clazz.getAnnotation(classOf[Migration])
-      if (migrationAnnotation != null) {
-        val migration = migrationAnnotation
-          .value()
-          .getConstructor()
-          .newInstance()
-        val fromVersion = parseVersion(bytesPayload.contentType)
-        val currentVersion = migration.currentVersion()
-        val supportedForwardVersion = migration.supportedForwardVersion
-        if (fromVersion < currentVersion) {
-          migrate(clazz, bytesPayload.bytes, fromVersion, migration);
-        } else if (fromVersion == currentVersion) {
-          parseBytes(clazz, bytesPayload.bytes)
-        } else if (fromVersion <= supportedForwardVersion) {
-          migrate(clazz, bytesPayload.bytes, fromVersion, migration)
-        } else {
-          throw new IllegalStateException(
-            s"Migration version [$supportedForwardVersion] is behind version [$fromVersion] of deserialized type [${expectedType.getTypeName}]")
-        }
-      } else {
-        parseBytes(expectedType, bytesPayload.bytes)
+      decoder.migration match {
+        case Some(migration) =>
+          val fromVersion = parseVersion(bytesPayload.contentType)
+          if (fromVersion < decoder.currentVersion) {
+            migrate(decoder, bytesPayload.bytes, fromVersion, migration)
+          } else if (fromVersion == decoder.currentVersion) {
+            decoder.reader.readValue[T](bytesPayload.bytes.toArrayUnsafe())
+          } else if (fromVersion <= decoder.supportedForwardVersion) {
+            migrate(decoder, bytesPayload.bytes, fromVersion, migration)
+          } else {
+            throw new IllegalStateException(
+              s"Migration version [${decoder.supportedForwardVersion}] is behind version [$fromVersion] of deserialized type [${expectedType.getTypeName}]")
+          }
+        case None =>
+          expectedType match {
+            case _: Class[_] => decoder.reader.readValue[T](bytesPayload.bytes.toArrayUnsafe())
+            case _           => parseBytes(expectedType, bytesPayload.bytes)
+          }
       }
     } catch {
       case e: JsonProcessingException =>
@@ -201,11 +252,6 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
     }
   }
 
-  def fromBytes[T](expectedType: Class[T], bytesPayload: BytesPayload): T = {
-    validateIsJson(bytesPayload)
-    fromBytes(expectedType.asInstanceOf[Type], bytesPayload).asInstanceOf[T]
-  }
-
   /**
    * Parse the bytes to object of type corresponding to the type name in the `bytesPayload.contentType`. Requires that
    * the types are known by first `registerTypeHints` or calling `contentTypeFor` or `toBytes`.
@@ -254,11 +300,26 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
       valueClass: Class[T],
       collectionType: Class[C],
       bytesPayload: BytesPayload): C = {
+    readCollection(valueClass, collectionReaderFor(valueClass, collectionType), bytesPayload)
+  }
+
+  /**
+   * Reader for a collection type, for callers that decode the same collection type over and over and want to create it
+   * once, to use with `readCollection`.
+   */
+  private[impl] def collectionReaderFor[T, C <: util.Collection[T]](
+      valueClass: Class[T],
+      collectionType: Class[C]): ObjectReader =
+    objectMapper.readerFor(objectMapper.getTypeFactory.constructCollectionType(collectionType, valueClass))
+
+  private[impl] def readCollection[T, C <: util.Collection[T]](
+      valueClass: Class[T],
+      collectionReader: ObjectReader,
+      bytesPayload: BytesPayload): C = {
     validateIsJson(bytesPayload)
 
     try {
-      val typeRef = objectMapper.getTypeFactory.constructCollectionType(collectionType, valueClass)
-      objectMapper.readValue(bytesPayload.bytes.toArrayUnsafe(), typeRef)
+      collectionReader.readValue[C](bytesPayload.bytes.toArrayUnsafe())
     } catch {
       case e: JsonProcessingException =>
         throw jsonProcessingException(valueClass, bytesPayload.contentType, e)
@@ -267,18 +328,14 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
     }
   }
 
-  private def parseVersion(contentType: String) = {
-    val versionSeparatorIndex = contentType.lastIndexOf('#')
-    if (versionSeparatorIndex > 0) {
-      contentType.substring(versionSeparatorIndex + 1).toInt
-    } else
-      0
-  }
+  // the set of content types is bounded by the known type names and their versions
+  private def parseVersion(contentType: String): Int =
+    contentTypeVersions.computeIfAbsent(contentType, ct => Integer.valueOf(parseContentTypeVersion(ct)))
 
-  private def migrate[T](valueClass: Class[T], bytes: ByteString, fromVersion: Int, jsonMigration: JsonMigration): T = {
+  private def migrate[T](decoder: ClassDecoder, bytes: ByteString, fromVersion: Int, jsonMigration: JsonMigration): T = {
     val jsonNode = objectMapper.readTree(bytes.toArrayUnsafe())
     val newJsonNode = jsonMigration.transform(fromVersion, jsonNode)
-    objectMapper.treeToValue(newJsonNode, valueClass)
+    decoder.reader.readValue[T](newJsonNode)
   }
 
   private def parseBytes[T](valueType: Type, bytes: ByteString): T = {
@@ -415,9 +472,9 @@ final class JsonSerializer(val objectMapper: ObjectMapper) {
 
   private def getVersionAndSupportedClassNames(clz: Class[_]): (Int, List[String]) = {
     import scala.jdk.CollectionConverters._
-    Option(clz.getAnnotation(classOf[Migration]))
-      .map(_.value())
-      .map(migrationClass => migrationClass.getConstructor().newInstance())
+    classDecoders
+      .get(clz)
+      .migration
       .map(migration =>
         (migration.currentVersion(), migration.supportedClassNames().asScala.toList)) //TODO what about TypeName
       .getOrElse((0, List.empty))
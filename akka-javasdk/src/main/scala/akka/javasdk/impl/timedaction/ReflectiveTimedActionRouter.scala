@@ -7,7 +7,6 @@ package akka.javasdk.impl.timedaction
 import java.util.Optional
 
 import akka.annotation.InternalApi
-import akka.javasdk.impl.CommandSerialization
 import akka.javasdk.impl.HandlerNotFoundException
 import akka.javasdk.impl.MethodInvoker
 import akka.javasdk.impl.serialization.Serializer
@@ -48,13 +47,7 @@ private[impl] final class ReflectiveTimedActionRouter[A <: TimedAction](
       // - BytesPayload.empty - there is no real command, and we are calling a method with arity 0
       // - BytesPayload with json - we deserialize it and call the method
       // - BytesPayload with protobuf - we deserialize it and call the method
-      val deserializedCommand =
-        CommandSerialization.deserializeComponentClientCommand(methodInvoker.method, payload, serializer)
-      val result = deserializedCommand match {
-        case None          => methodInvoker.invoke(action)
-        case Some(command) => methodInvoker.invokeDirectly(action, command)
-      }
-      result.asInstanceOf[TimedAction.Effect]
+      methodInvoker.invokeCommand(action, payload).asInstanceOf[TimedAction.Effect]
     } else {
       throw new IllegalStateException(
         s"Could not find a matching command handler for method [$methodName], content type [${payload.contentType}] " +
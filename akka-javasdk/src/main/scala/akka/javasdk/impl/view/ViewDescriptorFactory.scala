@@ -4,6 +4,9 @@
 
 package akka.javasdk.impl.view
 
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
 import java.lang.reflect.Method
 import java.lang.reflect.ParameterizedType
 import java.util.Optional
@@ -23,8 +26,8 @@ import akka.javasdk.impl.AbstractContext
 import akka.javasdk.impl.ComponentDescriptorFactory
 import akka.javasdk.impl.ComponentDescriptorFactory.readComponentDescription
 import akka.javasdk.impl.ComponentDescriptorFactory.readComponentName
-import akka.javasdk.impl.ErrorHandling.unwrapInvocationTargetExceptionCatcher
 import akka.javasdk.impl.MetadataImpl
+import akka.javasdk.impl.MethodInvoker
 import akka.javasdk.impl.reflection.Reflect
 import akka.javasdk.impl.serialization.Serializer
 import akka.javasdk.impl.telemetry.Telemetry
@@ -452,10 +455,14 @@ private[impl] object ViewDescriptorFactory {
 
     private val userLog = LoggerFactory.getLogger(tableUpdaterClass)
 
-    private val methodsByInput: Map[Class[_], Method] =
+    // bound once, reused for every update
+    private val invokers: Map[Method, MethodInvoker] = methods.map(m => m -> MethodInvoker(m)).toMap
+
+    private val methodsByInput: Map[Class[_], MethodInvoker] =
       if (deleteHandler) Map.empty
       else
         methods.flatMap { m =>
+          val invoker = invokers(m)
           // register each possible input to deserialize correctly an input
           val inputType = m.getParameterTypes.head
 
@@ -470,22 +477,40 @@ private[impl] object ViewDescriptorFactory {
             }
             protoTypes.map { protoClass =>
               serializer.registerTypeHints(protoClass)
-              protoClass -> m
+              protoClass -> invoker
             }
           } else if (inputType.isSealed) {
             inputType.getPermittedSubclasses.foreach(serializer.registerTypeHints)
-            Seq(inputType -> m)
+            Seq(inputType -> invoker)
           } else {
             serializer.registerTypeHints(m.getParameterTypes.head)
-            Seq(inputType -> m)
+            Seq(inputType -> invoker)
           }
         }.toMap
 
-    // Note: New instance for each update to avoid users storing/leaking state
-    private def tableUpdater(): TableUpdater[AnyRef] = {
-      tableUpdaterClass.getDeclaredConstructor().newInstance().asInstanceOf[TableUpdater[AnyRef]]
+    // the handler for each concrete event class is resolved on first use and then cached, so that handling an update
+    // is a lookup rather than a scan over all handlers, an exact match wins over a handler for a supertype (for
+    // example the sealed interface of the event)
+    private val invokerByEventClass: ClassValue[Option[MethodInvoker]] = new ClassValue[Option[MethodInvoker]] {
+      override def computeValue(eventClass: Class[_]): Option[MethodInvoker] =
+        methodsByInput
+          .get(eventClass)
+          .orElse(methodsByInput.collectFirst {
+            case (clazz, invoker) if clazz.isAssignableFrom(eventClass) => invoker
+          })
     }
 
+    // lazy to keep failing on the first update, rather than on startup, for an updater without a no-arg constructor
+    private lazy val tableUpdaterConstructor: MethodHandle =
+      MethodHandles
+        .lookup()
+        .unreflectConstructor(tableUpdaterClass.getDeclaredConstructor())
+        .asType(MethodType.methodType(classOf[AnyRef]))
+
+    // Note: New instance for each update to avoid users storing/leaking state
+    private def tableUpdater(): TableUpdater[AnyRef] =
+      (tableUpdaterConstructor.invokeExact(): AnyRef).asInstanceOf[TableUpdater[AnyRef]]
+
     override def handle(input: SpiTableUpdateEnvelope): Future[SpiTableUpdateEffect] = Future {
       val existingState: Option[AnyRef] =
         input.existingTableRow.map(bytes => serializer.fromBytes(tableUpdaterRowClass, bytes).asInstanceOf[AnyRef])
@@ -504,19 +529,18 @@ private[impl] object ViewDescriptorFactory {
           if (deleteHandler) null // no payload to deserialize
           else serializer.fromBytes(input.eventPayload)
 
-        val foundMethod: Option[Method] =
+        val foundMethod: Option[MethodInvoker] =
           if (deleteHandler) {
-            Some(methods.head) // only one delete handler
+            Some(invokers(methods.head)) // only one delete handler
           } else {
-            methodsByInput
-              .collectFirst { case (clazz, method) if clazz.isAssignableFrom(event.getClass) => method }
+            invokerByEventClass.get(event.getClass)
           }
 
         val effect: ViewEffectImpl.PrimaryEffect[Any] = {
           foundMethod match {
-            case Some(method) =>
+            case Some(invoker) =>
               val updateContext =
-                UpdateContextImpl(method.getName, metadata, regionInfo.selfRegion, input.originRegion.toJava)
+                UpdateContextImpl(invoker.method.getName, metadata, regionInfo.selfRegion, input.originRegion.toJava)
               val tableUpdaterInstance = tableUpdater()
               try {
 
@@ -524,10 +548,8 @@ private[impl] object ViewDescriptorFactory {
                 tableUpdaterInstance._internalSetViewState(existingState.getOrElse(tableUpdaterInstance.emptyRow()))
 
                 val result =
-                  try {
-                    if (deleteHandler) method.invoke(tableUpdaterInstance)
-                    else method.invoke(tableUpdaterInstance, event)
-                  } catch unwrapInvocationTargetExceptionCatcher
+                  if (deleteHandler) invoker.invoke(tableUpdaterInstance)
+                  else invoker.invokeDirectly(tableUpdaterInstance, event)
 
                 result match {
                   case effect: ViewEffectImpl.PrimaryEffect[Any @unchecked] => effect
@@ -11,7 +11,8 @@ import scala.concurrent.Future
 import akka.actor.typed.ActorSystem
 import akka.annotation.InternalApi
 import akka.javasdk.client.WorkflowClient
-import akka.javasdk.impl.CommandSerialization
+import akka.javasdk.impl.GeneratedCommandDecoder
+import akka.javasdk.impl.GeneratedCommandRouter
 import akka.javasdk.impl.HandlerNotFoundException
 import akka.javasdk.impl.MetadataImpl
 import akka.javasdk.impl.MethodInvoker
@@ -64,12 +65,16 @@ object ReflectiveWorkflowRouter {
 @InternalApi
 class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
     instanceFactory: Function[WorkflowContext, W],
+    workflowClass: Class[W],
     methodInvokers: Map[String, MethodInvoker],
+    generatedRouter: Option[GeneratedCommandRouter[AnyRef]],
     serializer: Serializer,
     stateClass: Class[S],
     sdkExecutionContext: ExecutionContext,
     runtimeComponentClients: ComponentClients)(implicit system: ActorSystem[_]) {
 
+  private val generatedCommandDecoder = new GeneratedCommandDecoder(workflowClass, methodInvokers.keySet, serializer)
+
   private def decodeUserState(userState: Option[BytesPayload]): Option[S] =
     userState
       .collect {
@@ -92,6 +97,9 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
       commandName,
       throw new HandlerNotFoundException("command", commandName, workflowClass, methodInvokers.keySet))
 
+  private def invokeReflectively(workflow: W, commandName: String, command: BytesPayload): AnyRef =
+    methodInvokerLookup(commandName, workflow.getClass).invokeCommand(workflow, command)
+
   final def handleCommand(
       userState: Option[SpiWorkflow.State],
       commandName: String,
@@ -107,17 +115,13 @@ class ReflectiveWorkflowRouter[S, W <: Workflow[S]](
     val decodedState = decodeUserState(userState).getOrElse(workflow.emptyState())
     workflow._internalSetup(decodedState, context, timerScheduler, deleted)
 
-    val methodInvoker = methodInvokerLookup(commandName, workflow.getClass)
-
     if (serializer.isJson(command) || serializer.isProtobuf(command) || command.isEmpty) {
       // - BytesPayload.empty - there is no real command, and we are calling a method with arity 0
       // - BytesPayload with json - we deserialize it and call the method
       // - BytesPayload with protobuf - we deserialize it and call the method
-      val deserializedCommand =
-        CommandSerialization.deserializeComponentClientCommand(methodInvoker.method, command, serializer)
-      val result = deserializedCommand match {
-        case None        => methodInvoker.invoke(workflow)
-        case Some(input) => methodInvoker.invokeDirectly(workflow, input)
+      val result = generatedRouter match {
+        case Some(router) => router.handleCommand(workflow, commandName, command, generatedCommandDecoder)
+        case None         => invokeReflectively(workflow, commandName, command)
       }
       val otelContext = context.tracing().asInstanceOf[SpanTracingImpl].context
       val componentClient =
@@ -76,7 +76,9 @@ class WorkflowImpl[S, W <: Workflow[S]](
   private val router =
     new ReflectiveWorkflowRouter[S, W](
       instanceFactory,
+      workflowClass,
       componentDescriptor.methodInvokers,
+      componentDescriptor.generatedRouter,
       serializer,
       Reflect.workflowStateType(workflowClass).asInstanceOf[Class[S]],
       sdkExecutionContext,
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.eventsourcedentity;
+
+import akka.javasdk.annotations.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Records the event context that each applied event saw. */
+@Component(id = "event-context-recording")
+public class EventContextRecordingEntity
+    extends EventSourcedEntity<List<String>, EventContextRecordingEntity.Recorded> {
+
+  public record Recorded(String value) {}
+
+  @Override
+  public List<String> emptyState() {
+    return List.of();
+  }
+
+  public ReadOnlyEffect<List<String>> get() {
+    return effects().reply(currentState());
+  }
+
+  @Override
+  public List<String> applyEvent(Recorded event) {
+    var applied = new ArrayList<>(currentState());
+    applied.add(
+        event.value()
+            + "@"
+            + eventContext().sequenceNumber()
+            + ":"
+            + eventContext().metadata().get("key").orElse("-"));
+    return applied;
+  }
+}
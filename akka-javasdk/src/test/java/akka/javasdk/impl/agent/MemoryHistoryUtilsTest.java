@@ -197,6 +197,33 @@ public class MemoryHistoryUtilsTest {
     assertThat(result).isEmpty();
   }
 
+  @Test
+  public void compiledFiltersLookUpTheRoleOfEachComponentOnce() {
+    var lookups = new java.util.concurrent.atomic.AtomicInteger();
+    var registryLookup =
+        MemoryHistoryUtils.roleLookup(registry(java.util.Map.of("agent-2", "translator")));
+    Function<String, Optional<String>> countingLookup =
+        id -> {
+          lookups.incrementAndGet();
+          return registryLookup.apply(id);
+        };
+    var u1 = user("agent-1", "u1");
+    var a1 = ai("agent-1", "a1");
+    var u2 = user("agent-2", "u2");
+    var a2 = ai("agent-2", "a2");
+
+    var filters =
+        MemoryHistoryUtils.compile(
+            List.of(
+                (MemoryFilter) MemoryFilter.Exclude.agentRole("translator"),
+                MemoryFilter.Exclude.agentId("agent-3")),
+            countingLookup);
+    var result = MemoryHistoryUtils.applyFilters(List.of(u1, u2, a1, a2, u1, a1), filters);
+
+    assertThat(result).containsExactly(u1, a1, u1, a1);
+    assertThat(lookups.get()).isEqualTo(2);
+  }
+
   // --- trimToLastN ----------------------------------------------------------
 
   @Test
@@ -32,6 +32,14 @@ object CommandSerializationSpec {
   class NoParamHandler {
     def handle(): String = "ok"
   }
+
+  class ListParamHandler {
+    def handle(requests: java.util.List[MyRecord]): java.util.List[MyRecord] = requests
+  }
+
+  class OptionalParamHandler {
+    def handle(request: java.util.Optional[MyRecord]): java.util.Optional[MyRecord] = request
+  }
 }
 
 class CommandSerializationSpec extends AnyWordSpecLike with TestSuite with Matchers {
@@ -107,5 +115,29 @@ class CommandSerializationSpec extends AnyWordSpecLike with TestSuite with Match
 
       result shouldBe None
     }
+
+    "decode several commands with the same payload decoder" in {
+      val decoder = CommandSerialization.payloadDecoder(method(classOf[RecordParamHandler]), serializer)
+
+      decoder.decode(serializer.toBytes(MyRecord("first", 1))) shouldBe MyRecord("first", 1)
+      decoder.decode(serializer.toBytes(MyRecord("second", 2))) shouldBe MyRecord("second", 2)
+      decoder.decode(untypedJsonPayload("""{"request":{"name":"third","value":3}}""")) shouldBe MyRecord("third", 3)
+    }
+
+    "decode collection parameter with payload decoder" in {
+      val decoder = CommandSerialization.payloadDecoder(method(classOf[ListParamHandler]), serializer)
+      val payload = typedJsonPayload("""[{"name":"a","value":1},{"name":"b","value":2}]""", "list")
+
+      decoder.decode(payload) shouldBe java.util.List.of(MyRecord("a", 1), MyRecord("b", 2))
+    }
+
+    "fail on decode, not on creation, of payload decoder for unsupported generic parameter" in {
+      val decoder = CommandSerialization.payloadDecoder(method(classOf[OptionalParamHandler]), serializer)
+
+      val ex = intercept[IllegalArgumentException] {
+        decoder.decode(typedJsonPayload("""{"name":"a","value":1}""", "optional"))
+      }
+      ex.getCause.getMessage should include("generic type")
+    }
   }
 }
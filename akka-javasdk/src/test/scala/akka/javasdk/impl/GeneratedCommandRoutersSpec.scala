@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl
+
+import java.lang.reflect.Method
+
+import akka.javasdk.JsonSupport
+import akka.javasdk.impl.serialization.JsonSerializer
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.BytesPayload
+import akka.util.ByteString
+import org.scalatest.TestSuite
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+object GeneratedCommandRoutersSpec {
+  // test classes need to be defined outside the test class for reflection to work
+  class RoutedComponent {
+    def greet(name: String): String = s"Hello $name"
+    def ping(): String = "pong"
+  }
+
+  class StaleComponent {
+    def greet(name: String): String = s"Hello $name"
+  }
+
+  class ChangedParameterComponent {
+    def greet(times: Int): String = "Hello" * times
+  }
+
+  class BrokenRouterComponent
+
+  class ComponentWithoutRouter
+}
+
+// what the annotation processor would generate for the components above
+final class GeneratedCommandRoutersSpec_RoutedComponent_AkkaCommandRouter
+    extends GeneratedCommandRouter[GeneratedCommandRoutersSpec.RoutedComponent] {
+
+  override def commandHandlers(): java.util.Map[String, java.util.List[Class[_]]] =
+    java.util.Map.of("Greet", java.util.List.of[Class[_]](classOf[String]), "Ping", java.util.List.of[Class[_]]())
+
+  override def handleCommand(
+      component: GeneratedCommandRoutersSpec.RoutedComponent,
+      commandName: String,
+      command: BytesPayload,
+      decoder: GeneratedCommandRouter.CommandDecoder): AnyRef =
+    commandName match {
+      case "Greet" => component.greet(decoder.decode(command, classOf[String], "greet", "name"))
+      case "Ping"  => component.ping()
+      case _       => throw decoder.handlerNotFound(commandName)
+    }
+}
+
+final class GeneratedCommandRoutersSpec_StaleComponent_AkkaCommandRouter
+    extends GeneratedCommandRouter[GeneratedCommandRoutersSpec.StaleComponent] {
+
+  override def commandHandlers(): java.util.Map[String, java.util.List[Class[_]]] =
+    java.util.Map.of("Hello", java.util.List.of[Class[_]](classOf[String]))
+
+  override def handleCommand(
+      component: GeneratedCommandRoutersSpec.StaleComponent,
+      commandName: String,
+      command: BytesPayload,
+      decoder: GeneratedCommandRouter.CommandDecoder): AnyRef =
+    throw decoder.handlerNotFound(commandName)
+}
+
+// generated when the handler still took a String
+final class GeneratedCommandRoutersSpec_ChangedParameterComponent_AkkaCommandRouter
+    extends GeneratedCommandRouter[GeneratedCommandRoutersSpec.ChangedParameterComponent] {
+
+  override def commandHandlers(): java.util.Map[String, java.util.List[Class[_]]] =
+    java.util.Map.of("Greet", java.util.List.of[Class[_]](classOf[String]))
+
+  override def handleCommand(
+      component: GeneratedCommandRoutersSpec.ChangedParameterComponent,
+      commandName: String,
+      command: BytesPayload,
+      decoder: GeneratedCommandRouter.CommandDecoder): AnyRef =
+    throw decoder.handlerNotFound(commandName)
+}
+
+// not a GeneratedCommandRouter
+final class GeneratedCommandRoutersSpec_BrokenRouterComponent_AkkaCommandRouter
+
+class GeneratedCommandRoutersSpec extends AnyWordSpecLike with TestSuite with Matchers {
+  import GeneratedCommandRoutersSpec._
+
+  private val serializer = new Serializer(JsonSupport.getObjectMapper)
+
+  private def handlersOf(component: Class[_]): Map[String, Method] =
+    component.getDeclaredMethods.map(method => method.getName.capitalize -> method).toMap
+
+  "GeneratedCommandRouters" should {
+
+    "derive the router class name from the binary name of the component" in {
+      GeneratedCommandRouters.routerClassNameFor(classOf[RoutedComponent]) shouldBe
+      "akka.javasdk.impl.GeneratedCommandRoutersSpec_RoutedComponent_AkkaCommandRouter"
+    }
+
+    "load the generated router matching the command handlers" in {
+      GeneratedCommandRouters.load(classOf[RoutedComponent], handlersOf(classOf[RoutedComponent])) shouldBe defined
+    }
+
+    "fall back to reflection when there is no generated router" in {
+      GeneratedCommandRouters.load(classOf[ComponentWithoutRouter], Map.empty) shouldBe None
+    }
+
+    "fall back to reflection when the generated router is stale" in {
+      GeneratedCommandRouters.load(classOf[StaleComponent], handlersOf(classOf[StaleComponent])) shouldBe None
+    }
+
+    "fall back to reflection when a parameter type of the command handlers changed" in {
+      GeneratedCommandRouters.load(
+        classOf[ChangedParameterComponent],
+        handlersOf(classOf[ChangedParameterComponent])) shouldBe None
+    }
+
+    "fall back to reflection when the generated router can't be loaded" in {
+      GeneratedCommandRouters.load(classOf[BrokenRouterComponent], Map.empty) shouldBe None
+    }
+
+    "decode the command and call the handler" in {
+      val router = GeneratedCommandRouters.load(classOf[RoutedComponent], handlersOf(classOf[RoutedComponent])).get
+      val decoder = new GeneratedCommandDecoder(classOf[RoutedComponent], Set("Greet", "Ping"), serializer)
+      val component = new RoutedComponent
+
+      router.handleCommand(component, "Greet", serializer.toBytes("Akka"), decoder) shouldBe "Hello Akka"
+      router.handleCommand(component, "Ping", BytesPayload.empty, decoder) shouldBe "pong"
+
+      val untyped =
+        new BytesPayload(ByteString.fromString("""{"name":"Akka"}"""), JsonSerializer.JsonContentTypePrefix + "object")
+      router.handleCommand(component, "Greet", untyped, decoder) shouldBe "Hello Akka"
+
+      val exception = intercept[HandlerNotFoundException] {
+        router.handleCommand(component, "Unknown", BytesPayload.empty, decoder)
+      }
+      exception.name shouldBe "Unknown"
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.time.Instant
+import java.util
+import java.util.Optional
+
+import akka.javasdk.agent.SessionMessage
+import akka.javasdk.agent.TokenEstimator
+import com.typesafe.config.ConfigFactory
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class CharacterTokenEstimator extends TokenEstimator {
+  override def estimateTokens(text: String): Int = text.length
+}
+
+class BpeTokenEstimatorSpec extends AnyWordSpec with Matchers {
+
+  private val estimator = BpeTokenEstimator.INSTANCE
+  private val ts = Instant.parse("2026-01-01T00:00:00Z")
+
+  "BpeTokenEstimator" should {
+
+    "merge a single space with the word that follows it" in {
+      estimator.estimateTokens("Hello world!") shouldBe 3
+      estimator.estimateTokens("Hello  world") shouldBe 3
+    }
+
+    "split long words and numbers" in {
+      estimator.estimateTokens("internationalization") shouldBe 4
+      estimator.estimateTokens("1234567") shouldBe 3
+    }
+
+    "count other characters as a token each" in {
+      estimator.estimateTokens("{\"a\": 1}") shouldBe 8
+      estimator.estimateTokens("你好") shouldBe 2
+      estimator.estimateTokens("line\n\nline") shouldBe 3
+      estimator.estimateTokens("") shouldBe 0
+    }
+
+    "estimate the text, thinking and tool call arguments of a message" in {
+      val message = new SessionMessage.AiMessage(
+        ts,
+        "Hello world",
+        "agent-1",
+        util.List.of(new SessionMessage.ToolCallRequest("1", "tool", "{}")),
+        Optional.of("thinking"))
+      estimator.estimateTokens(message) shouldBe 2 + 2 + 2
+    }
+
+    "be replaced by the configured estimator" in {
+      BpeTokenEstimator.fromConfig(ConfigFactory.load()) should be theSameInstanceAs estimator
+
+      val config = ConfigFactory
+        .parseString(
+          s"akka.javasdk.agent.memory.limited-window.token-estimator = ${classOf[CharacterTokenEstimator].getName}")
+        .withFallback(ConfigFactory.load())
+      BpeTokenEstimator.fromConfig(config).estimateTokens("Hello world!") shouldBe 12
+    }
+  }
+}
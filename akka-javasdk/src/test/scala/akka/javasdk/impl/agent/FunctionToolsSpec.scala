@@ -210,6 +210,17 @@ class FunctionToolsSpec extends AnyWordSpec with Matchers {
       multiplyResult shouldBe 15
     }
 
+    "resolve the tools of a class once and bind them to each instance" in {
+      FunctionTools.descriptorsFor(classOf[MultipleMethodsTool]) should be theSameInstanceAs FunctionTools
+        .descriptorsFor(classOf[MultipleMethodsTool])
+
+      val invokers1 = FunctionTools.toolInvokersFor(new MultipleMethodsTool())
+      val invokers2 = FunctionTools.toolInvokersFor(new MultipleMethodsTool())
+      invokers1 should not be theSameInstanceAs(invokers2)
+      invokers1("MultipleMethodsTool_add").invoke(Array(1, 2)) shouldBe 3
+      invokers2("MultipleMethodsTool_add").invoke(Array(3, 4)) shouldBe 7
+    }
+
     "respect custom tool names" in {
       val tools = FunctionTools.descriptorsFor(classOf[CustomNameTool])
       tools.length shouldBe 1
@@ -4,6 +4,8 @@
 
 package akka.javasdk.impl.agent
 
+import java.util.concurrent.atomic.AtomicInteger
+
 import akka.actor.testkit.typed.scaladsl.LogCapturing
 import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
 import akka.javasdk.agent.Guardrail
@@ -51,6 +53,18 @@ object GuardrailProviderSpec {
       new Guardrail.Result(false, s"${context.name} says no")
   }
 
+  class CountingGuard extends TextGuardrail {
+
+    override def evaluate(text: String): Guardrail.Result = {
+      CountingGuard.evaluations.incrementAndGet()
+      new Guardrail.Result(true, "")
+    }
+  }
+
+  object CountingGuard {
+    val evaluations = new AtomicInteger
+  }
+
   class WrongGuard
 }
 
@@ -117,6 +131,48 @@ class GuardrailProviderSpec extends ScalaTestWithActorTestKit with AnyWordSpecLi
       g2.modelResponseGuardrails.head.name shouldBe "my guard"
     }
 
+    "evaluate the similarity guard in the service with the in-process engine" in {
+      val inProcessConfig = ConfigFactory
+        .parseString("""
+        akka.javasdk.agent.guardrails {
+          "request prompt injection" {
+            engine = "in-process"
+            threshold = 0.6
+          }
+        }
+        """)
+        .withFallback(config)
+      val provider = new GuardrailProvider(system, inProcessConfig)
+
+      val guardrails = provider.agentGuardrails("planner-agent", role = None)
+      guardrails.modelRequestGuardrails.head.getClass shouldBe classOf[GuardrailProvider.SpiGuardrailAdapter]
+      val guard = guardrails.entries.head.guardrail.asInstanceOf[SimilarityGuard]
+      guard.inProcess shouldBe true
+
+      val badExample =
+        new String(getClass.getResourceAsStream("/guardrail/jailbreak/prompt-9.txt").readAllBytes(), "UTF-8")
+      val blocked = guard.evaluate(badExample)
+      blocked.passed shouldBe false
+      blocked.explanation should include("Content similarity")
+      guard.evaluate("What is the weather in Oslo tomorrow?").passed shouldBe true
+    }
+
+    "throw from validate when unknown similarity guard engine" in {
+      val faultyConfig = ConfigFactory
+        .parseString("""
+        akka.javasdk.agent.guardrails {
+          "request prompt injection" {
+            engine = "remote"
+          }
+        }
+        """)
+        .withFallback(config)
+      val provider = new GuardrailProvider(system, faultyConfig)
+      intercept[IllegalArgumentException] {
+        provider.validate()
+      }.getMessage should include("Unknown engine [remote]")
+    }
+
     "select guardrails with wildcards" in {
       val wildcardConfig = ConfigFactory
         .parseString(s"""
@@ -159,6 +215,44 @@ class GuardrailProviderSpec extends ScalaTestWithActorTestKit with AnyWordSpecLi
         "componentId and role wildcard guard")
     }
 
+    "evaluate the request guardrails speculatively for the text of the request" in {
+      val speculativeConfig = ConfigFactory
+        .parseString(s"""
+        akka.javasdk.agent.guardrails {
+          "counting guard" {
+            class = "akka.javasdk.impl.agent.GuardrailProviderSpec$$CountingGuard"
+            agents = ["speculative-agent"]
+            category = TOXIC
+            use-for = ["model-request"]
+          }
+          "blocking guard" {
+            class = "akka.javasdk.impl.agent.GuardrailProviderSpec$$AnotherGuard"
+            agents = ["speculative-agent"]
+            category = TOXIC
+            use-for = ["model-request"]
+          }
+        }
+        """)
+        .withFallback(config)
+      val provider = new GuardrailProvider(system, speculativeConfig)
+      val guardrails = provider
+        .agentGuardrails("speculative-agent", role = None)
+        .speculativeModelRequestGuardrails("hello")(system.executionContext)
+      guardrails.map(_.getClass).toSet shouldBe Set(classOf[GuardrailProvider.SpeculativeGuardrail])
+
+      val results =
+        guardrails.map(g => g.name -> g.evaluate(new SpiAgent.Guardrail.TextContent("hello")).futureValue).toMap
+      results("blocking guard").passed shouldBe false
+      results("blocking guard").explanation shouldBe "blocking guard says no"
+      results("counting guard").passed shouldBe true
+      // evaluated once, either speculatively or when requested after the blocking guard skipped it
+      CountingGuard.evaluations.get shouldBe 1
+
+      val counting = guardrails.find(_.name == "counting guard").get
+      counting.evaluate(new SpiAgent.Guardrail.TextContent("other")).futureValue.passed shouldBe true
+      CountingGuard.evaluations.get shouldBe 2
+    }
+
   }
 
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import scala.concurrent.duration._
+
+import akka.actor.testkit.typed.scaladsl.LogCapturing
+import akka.actor.testkit.typed.scaladsl.ScalaTestWithActorTestKit
+import akka.javasdk.agent.ModelProvider
+import akka.javasdk.agent.RateLimitException
+import akka.javasdk.impl.agent.ModelCallScheduler._
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpecLike
+
+class ModelCallSchedulerSpec extends ScalaTestWithActorTestKit with AnyWordSpecLike with Matchers with LogCapturing {
+
+  private val meter = OpenTelemetry.noop().getMeter("test")
+
+  private def settings(
+      initialConcurrency: Int = 2,
+      tokensPerMinute: Long = 0,
+      interactiveShare: Int = 2,
+      maxQueueSize: Int = 10) =
+    Settings(
+      enabled = true,
+      initialConcurrency = initialConcurrency,
+      minConcurrency = 1,
+      maxConcurrency = 10,
+      backoffRatio = 0.5,
+      tokensPerMinute = tokensPerMinute,
+      interactiveShare = interactiveShare,
+      maxQueueSize = maxQueueSize,
+      leaseTimeout = 1.minute)
+
+  private def scheduler(s: Settings = settings()) =
+    new ModelCallScheduler(s, meter, system.scheduler)(system.executionContext)
+
+  private def enqueued(calls: ModelCallScheduler, key: String, priority: Priority): Ticket = {
+    val ticket = calls.ticket(key, priority, "agent")
+    ticket.enqueue()
+    ticket
+  }
+
+  "ModelCallScheduler" should {
+
+    "use the provider and model as key" in {
+      keyOf(ModelProvider.openAi().withModelName("gpt-4o")) shouldBe "openai:gpt-4o"
+      keyOf(ModelProvider.anthropic().withModelName("claude")) shouldBe "anthropic:claude"
+    }
+
+    "queue the requests over the concurrency limit until a request is released" in {
+      val calls = scheduler()
+      val first = enqueued(calls, "p", Interactive)
+      val second = enqueued(calls, "p", Interactive)
+      val third = enqueued(calls, "p", Interactive)
+
+      first.granted.isCompleted shouldBe true
+      second.granted.isCompleted shouldBe true
+      third.granted.isCompleted shouldBe false
+
+      // other providers have their own limit
+      enqueued(calls, "other", Interactive).granted.isCompleted shouldBe true
+
+      first.release(Succeeded)
+      third.granted.futureValue
+    }
+
+    "decrease the limit when rate limited and increase it on success" in {
+      val calls = scheduler(settings(initialConcurrency = 4))
+      enqueued(calls, "p", Interactive).release(RateLimited)
+      calls.limit("p") shouldBe 2.0
+
+      enqueued(calls, "p", Interactive).release(Succeeded)
+      calls.limit("p") shouldBe 2.5
+      enqueued(calls, "p", Interactive).release(Failed)
+      calls.limit("p") shouldBe 2.5
+    }
+
+    "decrease the limit once for the requests started before the last decrease" in {
+      val calls = scheduler(settings(initialConcurrency = 8))
+      val started = (1 to 3).map(_ => enqueued(calls, "p", Interactive))
+
+      started(0).release(RateLimited)
+      started(1).release(RateLimited)
+      calls.limit("p") shouldBe 4.0
+
+      enqueued(calls, "p", Interactive).release(RateLimited)
+      started(2).release(RateLimited)
+      calls.limit("p") shouldBe 2.0
+    }
+
+    "give up the place in the queue when released before it was granted" in {
+      val calls = scheduler(settings(initialConcurrency = 1))
+      val running = enqueued(calls, "p", Interactive)
+      val withdrawn = enqueued(calls, "p", Interactive)
+      val waiting = enqueued(calls, "p", Interactive)
+
+      withdrawn.release(Failed)
+      withdrawn.granted.failed.futureValue shouldBe a[RateLimitException]
+      running.release(Succeeded)
+      waiting.granted.futureValue
+    }
+
+    "only queue a ticket once it is enqueued" in {
+      val calls = scheduler(settings(initialConcurrency = 1))
+      val ticket = calls.ticket("p", Interactive, "agent")
+      enqueued(calls, "p", Interactive).granted.isCompleted shouldBe true
+
+      val granted = ticket.enqueue()
+      granted.isCompleted shouldBe false
+    }
+
+    "start background requests behind, but not only after, the interactive requests" in {
+      val calls = scheduler(settings(initialConcurrency = 1, interactiveShare = 2))
+      val running = enqueued(calls, "p", Interactive)
+      val background = enqueued(calls, "p", Background)
+      val interactive = (1 to 3).map(_ => enqueued(calls, "p", Interactive))
+
+      // the limit is now 2, the background request waited behind interactiveShare interactive requests
+      running.release(Succeeded)
+      interactive(0).granted.isCompleted shouldBe true
+      background.granted.isCompleted shouldBe true
+      interactive(1).granted.isCompleted shouldBe false
+
+      background.release(Succeeded)
+      interactive(1).granted.isCompleted shouldBe true
+      interactive(2).granted.isCompleted shouldBe false
+    }
+
+    "fail requests when the queue is full" in {
+      val calls = scheduler(settings(initialConcurrency = 1, maxQueueSize = 1))
+      enqueued(calls, "p", Interactive)
+      enqueued(calls, "p", Interactive)
+      enqueued(calls, "p", Interactive).granted.failed.futureValue shouldBe a[RateLimitException]
+    }
+
+    "hold back requests when the token budget is used up" in {
+      val calls = scheduler(settings(tokensPerMinute = 600))
+      val first = enqueued(calls, "p", Interactive)
+      first.release(Succeeded)
+      // the token usage is only known after the permit was released
+      first.consumed(600)
+      val waiting = enqueued(calls, "p", Interactive)
+      waiting.granted.isCompleted shouldBe false
+      // 10 tokens per second refill the bucket
+      waiting.granted.futureValue
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import scala.concurrent.duration._
+
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class PromptTemplateCacheSpec extends AnyWordSpec with Matchers {
+
+  private val meter = OpenTelemetry.noop().getMeter("test")
+
+  private class CountingLoader {
+    var loads = 0
+    var prompt = "You are a helpful assistant"
+    def load(templateId: String): String = {
+      loads += 1
+      s"$templateId: $prompt"
+    }
+  }
+
+  "PromptTemplateCache" should {
+
+    "serve a template from the cache until it is invalidated" in {
+      val cache = new PromptTemplateCache(maxSize = 10, maxStaleness = 1.minute, meter)
+      val loader = new CountingLoader
+
+      cache.get("t1", loader.load) shouldBe "t1: You are a helpful assistant"
+      cache.get("t1", loader.load) shouldBe "t1: You are a helpful assistant"
+      loader.loads shouldBe 1
+      cache.hitRatio shouldBe 0.5
+
+      loader.prompt = "You are a terse assistant"
+      cache.invalidate("t1")
+      cache.get("t1", loader.load) shouldBe "t1: You are a terse assistant"
+      loader.loads shouldBe 2
+    }
+
+    "load a template again when the cached template is stale" in {
+      val cache = new PromptTemplateCache(maxSize = 10, maxStaleness = 1.millis, meter)
+      val loader = new CountingLoader
+
+      cache.get("t1", loader.load)
+      Thread.sleep(5)
+      cache.get("t1", loader.load)
+      loader.loads shouldBe 2
+    }
+
+    "not cache a template loaded concurrently with an invalidation" in {
+      val cache = new PromptTemplateCache(maxSize = 10, maxStaleness = 1.minute, meter)
+      val loader = new CountingLoader
+
+      cache.get("t1", id => { cache.invalidate(id); loader.load(id) })
+      cache.get("t1", loader.load)
+      loader.loads shouldBe 2
+    }
+
+    "evict the oldest template when exceeding the max size" in {
+      val cache = new PromptTemplateCache(maxSize = 2, maxStaleness = 1.minute, meter)
+      val loader = new CountingLoader
+
+      cache.get("t1", loader.load)
+      cache.get("t2", loader.load)
+      cache.get("t3", loader.load)
+      loader.loads shouldBe 3
+
+      cache.get("t3", loader.load)
+      cache.get("t2", loader.load)
+      loader.loads shouldBe 3
+      cache.get("t1", loader.load)
+      loader.loads shouldBe 4
+    }
+
+    "always load the template when disabled" in {
+      val cache = new PromptTemplateCache(maxSize = 0, maxStaleness = 1.minute, meter)
+      val loader = new CountingLoader
+
+      cache.get("t1", loader.load)
+      cache.get("t1", loader.load)
+      loader.loads shouldBe 2
+    }
+  }
+}
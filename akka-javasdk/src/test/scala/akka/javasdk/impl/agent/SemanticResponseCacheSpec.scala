@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.time.Instant
+
+import scala.concurrent.duration._
+
+import akka.javasdk.agent.SessionHistory
+import akka.javasdk.agent.SessionMessage
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class SemanticResponseCacheSpec extends AnyWordSpec with Matchers {
+
+  private val meter = OpenTelemetry.noop().getMeter("test")
+
+  private def cache(threshold: Double = 0.8, maxEntries: Int = 10) =
+    new SemanticResponseCache(threshold, 1.minute, maxEntries, HashedNGramEmbedder.INSTANCE, meter)
+
+  private val scope = SemanticResponseCache.scope(Seq("support-agent", "You answer order questions"))
+
+  "SemanticResponseCache" should {
+
+    "normalize casing, whitespace and punctuation" in {
+      SemanticResponseCache.normalize("  Where is   my ORDER?! ") shouldBe "where is my order"
+    }
+
+    "use a different scope for a different system message" in {
+      SemanticResponseCache.scope(Seq("support-agent", "You answer billing questions")) should not be scope
+      SemanticResponseCache.scope(Seq("a", "bc")) should not be SemanticResponseCache.scope(Seq("ab", "c"))
+    }
+
+    "use the same scope only for the same conversation in the session history" in {
+      def history(at: Instant, answer: String) =
+        new SessionHistory(
+          java.util.List.of[SessionMessage](
+            new SessionMessage.UserMessage(at, "Where is my order?", "support-agent"),
+            new SessionMessage.AiMessage(at, answer, "support-agent")),
+          2)
+      def scopeWith(history: SessionHistory) =
+        SemanticResponseCache.scope(Seq("support-agent") ++ SemanticResponseCache.historyParts(history))
+
+      val now = Instant.now()
+      scopeWith(history(now, "It is on its way")) shouldBe scopeWith(history(now.plusSeconds(60), "It is on its way"))
+      scopeWith(history(now, "It is on its way")) should not be scopeWith(history(now, "It was delivered"))
+      scopeWith(history(now, "It is on its way")) should not be scopeWith(new SessionHistory(java.util.List.of(), 0))
+    }
+
+    "serve the response of a user message that is the same after normalization" in {
+      val responses = cache(threshold = 1.0)
+      responses.put(scope, "Where is my order?", "It is on its way", None)
+
+      responses.lookup("agent", scope, "where is my ORDER", None) shouldBe Some("It is on its way")
+      responses.lookup("agent", scope, "where is my parcel", None) shouldBe None
+    }
+
+    "serve the response of a similar user message above the threshold" in {
+      val responses = cache()
+      responses.put(scope, "Where is my order 1234?", "It is on its way", None)
+
+      responses.lookup("agent", scope, "where is my order 1234 please", None) shouldBe Some("It is on its way")
+      responses.lookup("agent", scope, "How do I reset my password?", None) shouldBe None
+      responses.lookup("agent", scope, "where is my order 1234 please", Some(1.0)) shouldBe None
+    }
+
+    "not serve responses of another scope" in {
+      val responses = cache()
+      responses.put(scope, "Where is my order?", "It is on its way", None)
+
+      val otherScope = SemanticResponseCache.scope(Seq("other-agent"))
+      responses.lookup("agent", otherScope, "Where is my order?", None) shouldBe None
+    }
+
+    "not serve expired responses" in {
+      val responses = cache()
+      responses.put(scope, "Where is my order?", "It is on its way", Some(20.millis))
+      Thread.sleep(30)
+
+      responses.lookup("agent", scope, "Where is my order?", None) shouldBe None
+    }
+
+    "evict the least recently used response when there are more than the max entries" in {
+      val responses = cache(threshold = 1.0, maxEntries = 2)
+      responses.put(scope, "first", "1", None)
+      responses.put(scope, "second", "2", None)
+      responses.lookup("agent", scope, "first", None) shouldBe Some("1")
+      responses.put(scope, "third", "3", None)
+
+      responses.lookup("agent", scope, "second", None) shouldBe None
+      responses.lookup("agent", scope, "first", None) shouldBe Some("1")
+      responses.lookup("agent", scope, "third", None) shouldBe Some("3")
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.time.Instant
+import java.util
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.agent.SessionHistoryResult
+import akka.javasdk.agent.SessionMessage
+import akka.javasdk.agent.SessionMessage.TokenUsage
+import akka.javasdk.agent.SessionMessage.UserMessage
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class SessionHistoryCacheSpec extends AnyWordSpec with Matchers {
+
+  private val ts = Instant.parse("2026-01-01T00:00:00Z")
+
+  private def message(text: String): SessionMessage = new UserMessage(ts, text, "agent-1")
+
+  private def delta(since: Long, texts: Seq[String], historySize: Int, seqNr: Long): SessionHistoryResult.Delta =
+    new SessionHistoryResult.Delta(
+      since,
+      util.List.copyOf(texts.map(message).asJava),
+      historySize,
+      seqNr,
+      TokenUsage.EMPTY,
+      false,
+      0L,
+      0L)
+
+  private def texts(cache: SessionHistoryCache, sessionId: String, d: SessionHistoryResult.Delta): Seq[String] =
+    cache.applyDelta(sessionId, d).get.messages().asScala.map(_.asInstanceOf[UserMessage].text()).toSeq
+
+  "SessionHistoryCache" should {
+
+    "append the messages of a delta to the cached history" in {
+      val cache = new SessionHistoryCache(maxSizeInBytes = 1024)
+      cache.sequenceNumber("s1") shouldBe -1
+
+      texts(cache, "s1", delta(-1, Seq("a", "b"), historySize = 2, seqNr = 2)) shouldBe Seq("a", "b")
+      cache.sequenceNumber("s1") shouldBe 2
+      texts(cache, "s1", delta(2, Seq("c"), historySize = 3, seqNr = 3)) shouldBe Seq("a", "b", "c")
+    }
+
+    "drop the oldest messages that the entity dropped" in {
+      val cache = new SessionHistoryCache(maxSizeInBytes = 1024)
+      cache.applyDelta("s1", delta(-1, Seq("a", "b", "c"), historySize = 3, seqNr = 3))
+
+      texts(cache, "s1", delta(3, Seq("d", "e"), historySize = 3, seqNr = 5)) shouldBe Seq("c", "d", "e")
+    }
+
+    "not apply a delta relative to another history" in {
+      val cache = new SessionHistoryCache(maxSizeInBytes = 1024)
+      cache.applyDelta("s1", delta(-1, Seq("a"), historySize = 1, seqNr = 1))
+
+      cache.applyDelta("s1", delta(4, Seq("e"), historySize = 5, seqNr = 5)).isPresent shouldBe false
+      cache.sequenceNumber("s1") shouldBe -1
+    }
+
+    "evict the least recently used sessions when exceeding the max size" in {
+      // each message is 10 bytes
+      val cache = new SessionHistoryCache(maxSizeInBytes = 25)
+      cache.applyDelta("s1", delta(-1, Seq("aaaaaaaaaa"), historySize = 1, seqNr = 1))
+      cache.applyDelta("s2", delta(-1, Seq("bbbbbbbbbb"), historySize = 1, seqNr = 1))
+      cache.sequenceNumber("s1") // s1 is now more recently used than s2
+      cache.applyDelta("s3", delta(-1, Seq("cccccccccc"), historySize = 1, seqNr = 1))
+
+      cache.sequenceNumber("s1") shouldBe 1
+      cache.sequenceNumber("s2") shouldBe -1
+      cache.sequenceNumber("s3") shouldBe 1
+    }
+  }
+}
@@ -31,18 +31,22 @@ import org.scalatest.wordspec.AnyWordSpecLike
 
 object SessionMemoryClientSpec {
 
-  /** Captures the query the client passed to the runtime, and returns a canned event stream. */
+  /**
+   * Captures the queries the client passed to the runtime, and returns the canned events, numbered from 1, within the
+   * bounds of the query.
+   */
   final class FakeEventLogClient(events: Vector[SessionMemoryEntity.Event], serializer: Serializer)
       extends EventLogClient {
-    @volatile var lastQuery: Option[Query] = None
+    @volatile var queries: Vector[Query] = Vector.empty
+
+    def lastQuery: Option[Query] = queries.lastOption
 
     override def currentEventsForEntity(query: Query): Source[SpiEventSourcedEntity.EventEnvelope, NotUsed] = {
-      lastQuery = Some(query)
-      var counter = 0
+      queries :+= query
       val envelopes =
-        events.map { e =>
-          counter += 1
-          new SpiEventSourcedEntity.EventEnvelope(counter, serializer.toBytesAsJson(e), SpiMetadata.empty)
+        events.zipWithIndex.collect {
+          case (e, index) if index + 1 >= query.fromSequenceNr && index + 1 <= query.toSequenceNr =>
+            new SpiEventSourcedEntity.EventEnvelope(index + 1, serializer.toBytesAsJson(e), SpiMetadata.empty)
         }
       Source(envelopes)
     }
@@ -145,5 +149,35 @@ class SessionMemoryClientSpec extends ScalaTestWithActorTestKit with AnyWordSpec
       msgs(1).asInstanceOf[AiMessage].text() shouldBe "a2"
     }
 
+    "read the journal tail first until lastN messages pass the filters" in {
+      // 100 interactions of agent-1, with a single interaction of agent-2 at the start
+      val events =
+        Vector(userEvent("agent-2", "u0"), aiEvent("agent-2", "a0")) ++
+        (1 to 100).flatMap(n => Vector(userEvent("agent-1", s"u$n"), aiEvent("agent-1", s"a$n")))
+      val fake = new FakeEventLogClient(events, serializer)
+      val settings = new MemorySettings(true, true, Optional.of(2), MemoryFilter.excludeFromAgentId("agent-1").get())
+      val client = newClient(fake, settings)
+
+      val result = client.fetchHistoryFromJournal("s", 0L, events.size.toLong)
+
+      val msgs = result.messages().asScala.toVector
+      msgs.map(_.componentId()) shouldBe Vector("agent-2", "agent-2")
+      msgs.head.asInstanceOf[UserMessage].text() shouldBe "u0"
+      // 32 events, then 64 and then the remaining 106
+      fake.queries.map(q => q.fromSequenceNr -> q.toSequenceNr) shouldBe Vector(171L -> 202L, 107L -> 170L, 0L -> 106L)
+    }
+
+    "stop reading the journal once lastN messages are found" in {
+      val events = (1 to 100).flatMap(n => Vector(userEvent("a", s"u$n"), aiEvent("a", s"a$n"))).toVector
+      val fake = new FakeEventLogClient(events, serializer)
+      val settings = new MemorySettings(true, true, Optional.of(4), util.List.of())
+      val client = newClient(fake, settings)
+
+      val result = client.fetchHistoryFromJournal("s", 0L, events.size.toLong)
+
+      result.messages().size() shouldBe 4
+      fake.queries should have size 1
+    }
+
   }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.util.Optional
+import java.util.concurrent.CompletableFuture
+
+import scala.concurrent.duration._
+
+import akka.Done
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class SessionMemoryCompactorSpec extends AnyWordSpec with Matchers {
+
+  private def compactor(minInterval: FiniteDuration = 1.minute, maxConcurrent: Int = 4) =
+    new SessionMemoryCompactor(
+      maxSizeInBytes = 1000,
+      defaultThreshold = 0.8,
+      minInterval = minInterval,
+      maxConcurrent = maxConcurrent)
+
+  "SessionMemoryCompactor" should {
+
+    "compact once the threshold is reached or messages were dropped" in {
+      val c = compactor()
+      c.thresholdReached(799, truncated = false, Optional.empty(), 0L) shouldBe false
+      c.thresholdReached(800, truncated = false, Optional.empty(), 0L) shouldBe true
+      c.thresholdReached(500, truncated = false, Optional.of(0.5), 0L) shouldBe true
+      c.thresholdReached(0, truncated = true, Optional.empty(), 0L) shouldBe true
+    }
+
+    "use the max size of the session memory window when known" in {
+      val c = compactor()
+      c.thresholdReached(400, truncated = false, Optional.empty(), 500L) shouldBe true
+      c.thresholdReached(399, truncated = false, Optional.empty(), 500L) shouldBe false
+      c.thresholdReached(1200, truncated = false, Optional.empty(), 2000L) shouldBe false
+    }
+
+    "run one compaction at a time per session and debounce it" in {
+      val c = compactor(minInterval = 50.millis)
+      val running = new CompletableFuture[Done]
+
+      c.compact("s1", () => running) shouldBe true
+      c.compact("s1", () => CompletableFuture.completedFuture(Done)) shouldBe false
+      c.compact("s2", () => CompletableFuture.completedFuture(Done)) shouldBe true
+
+      running.complete(Done)
+      c.compact("s1", () => CompletableFuture.completedFuture(Done)) shouldBe false
+      Thread.sleep(60)
+      c.compact("s1", () => CompletableFuture.completedFuture(Done)) shouldBe true
+    }
+
+    "skip compactions beyond the maximum number running" in {
+      val c = compactor(maxConcurrent = 1)
+      val running = new CompletableFuture[Done]
+
+      c.compact("s1", () => running) shouldBe true
+      c.compact("s2", () => CompletableFuture.completedFuture(Done)) shouldBe false
+      running.complete(Done)
+      c.compact("s2", () => CompletableFuture.completedFuture(Done)) shouldBe true
+    }
+
+    "release the session when a compaction fails" in {
+      val c = compactor(minInterval = Duration.Zero)
+
+      c.compact("s1", () => throw new RuntimeException("summarizer not available")) shouldBe true
+      c.compact("s1", () => CompletableFuture.failedFuture(new RuntimeException("failed"))) shouldBe true
+      c.compact("s1", () => CompletableFuture.completedFuture(Done)) shouldBe true
+    }
+  }
+}
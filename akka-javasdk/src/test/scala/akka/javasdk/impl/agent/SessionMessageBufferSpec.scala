@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.time.Instant
+import java.util
+import java.util.Optional
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.agent.MemoryFilter
+import akka.javasdk.agent.SessionMessage
+import akka.javasdk.agent.SessionMessage.UserMessage
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class SessionMessageBufferSpec extends AnyWordSpec with Matchers {
+
+  private val ts = Instant.parse("2026-01-01T00:00:00Z")
+
+  private def message(componentId: String, text: String): SessionMessage = new UserMessage(ts, text, componentId)
+
+  private def texts(messages: util.List[SessionMessage]): Seq[String] =
+    messages.asScala.map(_.asInstanceOf[UserMessage].text()).toSeq
+
+  private val noRoles: MemoryHistoryUtils.RoleLookup = _ => Optional.empty()
+
+  "SessionMessageBuffer" should {
+
+    "keep the messages in order when wrapping around and growing" in {
+      val buffer = new SessionMessageBuffer
+      (1 to 10).foreach(n => buffer.add(message("a", n.toString)))
+      (1 to 8).foreach(_ => buffer.removeFirst())
+      (11 to 40).foreach(n => buffer.add(message("a", n.toString)))
+
+      texts(buffer) shouldBe (9 to 40).map(_.toString)
+      buffer.get(0) shouldBe message("a", "9")
+      buffer.getLast shouldBe message("a", "40")
+      buffer.subList(buffer.size - 2, buffer.size) shouldBe util.List.of(message("a", "39"), message("a", "40"))
+    }
+
+    "keep track of the components of the messages" in {
+      val buffer = SessionMessageBuffer.from(util.List.of(message("a", "1"), message("b", "2"), message("a", "3")))
+      buffer.componentIds().asScala shouldBe Set("a", "b")
+
+      buffer.removeFirst()
+      buffer.componentIds().asScala shouldBe Set("a", "b")
+      buffer.removeFirst()
+      buffer.componentIds().asScala shouldBe Set("a")
+    }
+
+    "keep track of the estimated tokens of the messages" in {
+      val buffer = new SessionMessageBuffer
+      buffer.addLast(message("a", "1"), 3)
+      buffer.addLast(message("a", "2"), 5)
+      (1 to 20).foreach(n => buffer.addLast(message("b", n.toString), 1))
+      buffer.estimatedTokens shouldBe 28
+
+      buffer.removeFirst()
+      buffer.estimatedTokens shouldBe 25
+      buffer.add(message("a", "Hello world"))
+      buffer.estimatedTokens shouldBe 27
+    }
+
+    "be equal to a list with the same messages" in {
+      val messages = util.List.of(message("a", "1"), message("b", "2"))
+      SessionMessageBuffer.from(messages) shouldBe messages
+    }
+
+    "be filtered per component" in {
+      val buffer = SessionMessageBuffer.from(util.List.of(message("a", "1"), message("b", "2"), message("a", "3")))
+
+      val onlyA = MemoryHistoryUtils.applyFilters(buffer, util.List.of(MemoryFilter.Include.agentId("a")), noRoles)
+      texts(onlyA) shouldBe Seq("1", "3")
+
+      val notC = MemoryHistoryUtils.applyFilters(buffer, util.List.of(MemoryFilter.Exclude.agentId("c")), noRoles)
+      notC should be theSameInstanceAs buffer
+
+      val onlyC = MemoryHistoryUtils.applyFilters(buffer, util.List.of(MemoryFilter.Include.agentId("c")), noRoles)
+      onlyC shouldBe empty
+    }
+  }
+}
@@ -6,6 +6,8 @@ package akka.javasdk.impl.agent
 
 import java.lang.reflect.Type
 import java.util.Optional
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 import scala.jdk.CollectionConverters._
 
@@ -18,6 +20,7 @@ import akka.javasdk.impl.agent.ToolExecutorSpec.Foobar
 import akka.javasdk.impl.serialization.Serializer
 import akka.runtime.sdk.spi.SpiAgent
 import akka.runtime.sdk.spi.SpiMetadata
+import io.opentelemetry.api.OpenTelemetry
 import io.opentelemetry.context.{ Context => TelemetryContext }
 import org.scalatest.TestSuite
 import org.scalatest.matchers.should.Matchers
@@ -505,5 +508,23 @@ class ToolExecutorSpec extends AnyWordSpecLike with TestSuite with Matchers {
         case other => fail(s"unexpected result: $other")
       }
     }
+
+    "serve the results of a cached tool from the result cache" in {
+      val calls = new AtomicInteger
+      val tool = new FunctionToolInvoker {
+        override def paramNames: Array[String] = Array("city", "units")
+        override def types: Array[Type] = Array(classOf[String], classOf[String])
+        override def invoke(args: Array[Any]): Any = s"${args(0)} in ${args(1)} #${calls.incrementAndGet()}"
+        override def returnType: Class[_] = classOf[String]
+        override def cachePolicy: Option[ToolResultCache.Policy] =
+          Some(ToolResultCache.Policy("weather", TimeUnit.MINUTES.toNanos(1), 10))
+      }
+      val cache = new ToolResultCache(OpenTelemetry.noop().getMeter("test"))
+      val executor = new ToolExecutor(Map("weather" -> tool), serializer, resultCache = Some(cache))
+
+      executor.execute(toolRequest("weather", """{ "city": "Oslo", "units": "C" }""")) shouldBe "Oslo in C #1"
+      executor.execute(toolRequest("weather", """{ "units": "C", "city": "Oslo" }""")) shouldBe "Oslo in C #1"
+      executor.execute(toolRequest("weather", """{ "city": "Oslo", "units": "F" }""")) shouldBe "Oslo in F #2"
+    }
   }
 }
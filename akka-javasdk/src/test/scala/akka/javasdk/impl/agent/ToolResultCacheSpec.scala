@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent
+
+import java.util.concurrent.TimeUnit
+
+import akka.javasdk.annotations.CacheToolResult
+import akka.javasdk.annotations.FunctionTool
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class CachedWeatherTools {
+  @FunctionTool(description = "Returns the weather forecast for a given city")
+  @CacheToolResult(ttlSeconds = 300, maxEntries = 10)
+  def getWeather(location: String): String = s"sunny in $location"
+
+  @FunctionTool(description = "Returns the weather forecast for a given city and day")
+  @CacheToolResult(ttlSeconds = 300, maxEntries = 10)
+  def getWeather(location: String, day: Int): String = s"sunny in $location on day $day"
+
+  @FunctionTool(description = "Returns the current time")
+  def getTime(): String = "now"
+}
+
+class ToolResultCacheSpec extends AnyWordSpec with Matchers {
+
+  private val meter = OpenTelemetry.noop().getMeter("test")
+  private val mapper = new ObjectMapper()
+
+  private class CountingTool {
+    var calls = 0
+    def call(): () => Any = () => {
+      calls += 1
+      s"result $calls"
+    }
+  }
+
+  private def policy(ttlSeconds: Long = 60, maxEntries: Int = 10, perInstance: Boolean = false) =
+    ToolResultCache.Policy("tool", TimeUnit.SECONDS.toNanos(ttlSeconds), maxEntries, perInstance)
+
+  "ToolResultCache" should {
+
+    "read the policy from the annotation of the tool method" in {
+      val cls = classOf[CachedWeatherTools]
+      val cached = ToolResultCache.policyFor(cls.getMethod("getWeather", classOf[String]), perInstance = false)
+      cached shouldBe Some(
+        ToolResultCache.Policy(s"${cls.getName}.getWeather(java.lang.String)", TimeUnit.SECONDS.toNanos(300), 10))
+      ToolResultCache.policyFor(cls.getMethod("getTime"), perInstance = false) shouldBe None
+    }
+
+    "key the results of overloaded tool methods separately" in {
+      val cls = classOf[CachedWeatherTools]
+      val byCity = ToolResultCache.policyFor(cls.getMethod("getWeather", classOf[String]), perInstance = false)
+      val byCityAndDay =
+        ToolResultCache.policyFor(cls.getMethod("getWeather", classOf[String], classOf[Int]), perInstance = false)
+      byCity.map(_.toolId) should not be byCityAndDay.map(_.toolId)
+
+      val policies = FunctionTools.toolInvokersFor(classOf[CachedWeatherTools], None).values.flatMap(_.cachePolicy)
+      policies.map(_.toolId).toSet shouldBe Set(byCity.get.toolId, byCityAndDay.get.toolId)
+    }
+
+    "share the results of tool classes between sessions" in {
+      val policies = FunctionTools.toolInvokersFor(classOf[CachedWeatherTools], None).values.flatMap(_.cachePolicy)
+      policies should not be empty
+      policies.forall(!_.perInstance) shouldBe true
+    }
+
+    "share the results of tool instances only within the same session" in {
+      val policies = FunctionTools.toolInvokersFor(new CachedWeatherTools).values.flatMap(_.cachePolicy)
+      policies should not be empty
+      policies.forall(_.perInstance) shouldBe true
+    }
+
+    "use the same key regardless of the order of the fields of the arguments" in {
+      val first = mapper.readTree("""{"city":"Oslo","units":{"temp":"C","wind":"m/s"}}""")
+      val second = mapper.readTree("""{"units":{"wind":"m/s","temp":"C"},"city":"Oslo"}""")
+      val other = mapper.readTree("""{"units":{"wind":"m/s","temp":"F"},"city":"Oslo"}""")
+
+      ToolResultCache.canonicalArguments(Seq(first)) shouldBe ToolResultCache.canonicalArguments(Seq(second))
+      ToolResultCache.canonicalArguments(Seq(first)) should not be ToolResultCache.canonicalArguments(Seq(other))
+      ToolResultCache.canonicalArguments(Seq(mapper.readTree("\"a\""), null)) should not be
+      ToolResultCache.canonicalArguments(Seq(null, mapper.readTree("\"a\"")))
+    }
+
+    "serve the result from the cache for the same arguments" in {
+      val cache = new ToolResultCache(meter)
+      val tool = new CountingTool
+
+      cache.getOrCall(policy(), "", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(), "", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(), "", "b", tool.call()) shouldBe "result 2"
+      tool.calls shouldBe 2
+    }
+
+    "call the tool again when the result has expired" in {
+      val cache = new ToolResultCache(meter)
+      val tool = new CountingTool
+      val expiring = ToolResultCache.Policy("tool", TimeUnit.MILLISECONDS.toNanos(20), 10)
+
+      cache.getOrCall(expiring, "", "a", tool.call()) shouldBe "result 1"
+      Thread.sleep(30)
+      cache.getOrCall(expiring, "", "a", tool.call()) shouldBe "result 2"
+    }
+
+    "evict the least recently used result when there are more than the max entries" in {
+      val cache = new ToolResultCache(meter)
+      val tool = new CountingTool
+
+      cache.getOrCall(policy(maxEntries = 2), "", "a", tool.call())
+      cache.getOrCall(policy(maxEntries = 2), "", "b", tool.call())
+      cache.getOrCall(policy(maxEntries = 2), "", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(maxEntries = 2), "", "c", tool.call())
+      cache.getOrCall(policy(maxEntries = 2), "", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(maxEntries = 2), "", "b", tool.call()) shouldBe "result 4"
+    }
+
+    "share the results of per instance tools only within the same instance scope" in {
+      val cache = new ToolResultCache(meter)
+      val tool = new CountingTool
+
+      cache.getOrCall(policy(perInstance = true), "session-1", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(perInstance = true), "session-1", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(perInstance = true), "session-2", "a", tool.call()) shouldBe "result 2"
+    }
+
+    "share the results of other tools between instance scopes" in {
+      val cache = new ToolResultCache(meter)
+      val tool = new CountingTool
+
+      cache.getOrCall(policy(), "session-1", "a", tool.call()) shouldBe "result 1"
+      cache.getOrCall(policy(), "session-2", "a", tool.call()) shouldBe "result 1"
+    }
+
+    "not cache failed calls" in {
+      val cache = new ToolResultCache(meter)
+      val tool = new CountingTool
+
+      an[IllegalStateException] should be thrownBy
+      cache.getOrCall(policy(), "", "a", () => throw new IllegalStateException("unavailable"))
+      cache.getOrCall(policy(), "", "a", tool.call()) shouldBe "result 1"
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.agent.task
+
+import java.util.Optional
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.impl.serialization.Serializer
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class BacklogStateSpec extends AnyWordSpec with Matchers {
+
+  private val state =
+    BacklogState
+      .empty()
+      .withName("backlog")
+      .withTaskAdded("task-1")
+      .withTaskAdded("task-2")
+      .withTaskAdded("task-3")
+      .withTaskClaimed("task-2", "agent-a")
+      .withTaskClaimed("task-3", "agent-b")
+      .withTaskReleased("task-3")
+
+  "BacklogState" should {
+
+    "track claimed and unclaimed tasks" in {
+      state.unclaimedTaskIds().asScala.toSet shouldBe Set("task-1", "task-3")
+      state.claimedTaskIds().asScala.toSet shouldBe Set("task-2")
+      state.hasUnclaimedTasks shouldBe true
+      state.isClaimed("task-2") shouldBe true
+      state.claimedBy("task-2") shouldBe Optional.of("agent-a")
+      state.claimedBy("task-4") shouldBe Optional.empty()
+    }
+
+    "remove only the unclaimed tasks" in {
+      val cancelled = state.withUnclaimedRemoved()
+      cancelled.tasks().keySet().asScala shouldBe Set("task-2")
+      cancelled.hasUnclaimedTasks shouldBe false
+      cancelled.unclaimedTaskIds() shouldBe empty
+      // previous state is unaffected
+      state.tasks().size() shouldBe 3
+    }
+
+    "be serialized as a plain map of tasks" in {
+      val serializer = new Serializer
+      val bytes = serializer.toBytes(state)
+      bytes.bytes.utf8String should include(""""task-2":{"taskId":"task-2","claimedBy":"agent-a"}""")
+
+      val deserialized = serializer.fromBytes(classOf[BacklogState], bytes)
+      deserialized shouldBe state
+      deserialized.tasks() shouldBe a[BacklogTasks]
+      deserialized.unclaimedTaskIds().asScala.toSet shouldBe Set("task-1", "task-3")
+    }
+  }
+}
@@ -42,12 +42,13 @@ class ReflectiveConsumerRouterSpec
     }
   }
 
+  private val serializer = new Serializer
+
   private def bytesOnlyRouter(ignoreUnknown: Boolean = false) = new ReflectiveConsumerRouter[BytesOnlyConsumer](
-    new BytesOnlyConsumer,
     BytesOnlyConsumer.methodInvokers,
-    new Serializer,
-    ignoreUnknown = ignoreUnknown,
-    consumesFromTopic = false)
+    serializer,
+    serializer,
+    ignoreUnknown = ignoreUnknown)
 
   private object ProtoConsumer {
     val methodInvokers = Map(
@@ -71,12 +72,12 @@ class ReflectiveConsumerRouterSpec
 
   }
 
-  private def protoBufRouter() = new ReflectiveConsumerRouter[ProtoConsumer](
-    new ProtoConsumer,
-    ProtoConsumer.methodInvokers,
-    new Serializer,
-    ignoreUnknown = false,
-    consumesFromTopic = false)
+  private def protoBufRouter() =
+    new ReflectiveConsumerRouter[ProtoConsumer](
+      ProtoConsumer.methodInvokers,
+      serializer,
+      serializer,
+      ignoreUnknown = false)
 
   "The ReflectiveConsumerRouter" should {
 
@@ -90,6 +91,7 @@ class ReflectiveConsumerRouterSpec
 
       val messageContext = new MessageContextImpl(metadata, null, null, None, null, null)
       bytesOnlyRouter().handleCommand(
+        new BytesOnlyConsumer,
         // Note: payload comes with the type url in the field contentType, not an actual content type.
         MessageEnvelope.of(new BytesPayload(ByteString("some bytes"), "json.akka.io/someType")),
         messageContext)
@@ -107,6 +109,7 @@ class ReflectiveConsumerRouterSpec
 
       val messageContext = new MessageContextImpl(metadata, null, null, None, null, null)
       bytesOnlyRouter(ignoreUnknown = true).handleCommand(
+        new BytesOnlyConsumer,
         // Note: payload comes with the type url in the field contentType, not an actual content type.
         MessageEnvelope.of(new BytesPayload(ByteString("some bytes"), BytesPayload.EmptyContentType)),
         messageContext)
@@ -140,13 +143,15 @@ class ReflectiveConsumerRouterSpec
 
       val messageContext1 = new MessageContextImpl(metadata1, null, null, None, null, null)
       router.handleCommand(
+        new ProtoConsumer,
         // Note: payload comes with the type url in the field contentType, not an actual content type.
         envelope1,
         messageContext1)
       ProtoConsumer.protoConsumerProbe.receiveMessage() shouldEqual event1
 
       val messageContext2 = new MessageContextImpl(metadata1, null, null, None, null, null)
-      router.handleCommand(envelope2, messageContext2)
+      // the same router is used for all messages, with a new consumer instance for each
+      router.handleCommand(new ProtoConsumer, envelope2, messageContext2)
       ProtoConsumer.protoConsumerProbe.receiveMessage() shouldEqual event2
 
     }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2021-2026 Lightbend Inc. <https://www.lightbend.com>
+ */
+
+package akka.javasdk.impl.eventsourcedentity
+
+import scala.jdk.CollectionConverters._
+
+import akka.javasdk.eventsourcedentity.EventContextRecordingEntity
+import akka.javasdk.impl.ComponentDescriptor
+import akka.javasdk.impl.serialization.Serializer
+import akka.runtime.sdk.spi.RegionInfo
+import akka.runtime.sdk.spi.SpiEventSourcedEntity
+import akka.runtime.sdk.spi.SpiMetadata
+import akka.runtime.sdk.spi.SpiMetadataEntry
+import io.opentelemetry.api.OpenTelemetry
+import org.scalatest.matchers.should.Matchers
+import org.scalatest.wordspec.AnyWordSpec
+
+class EventSourcedEntityImplSpec extends AnyWordSpec with Matchers {
+
+  private val serializer = new Serializer()
+
+  private def entityImpl() =
+    new EventSourcedEntityImpl[
+      java.util.List[String],
+      EventContextRecordingEntity.Recorded,
+      EventContextRecordingEntity](
+      () => OpenTelemetry.noop().getTracer("test"),
+      "event-context-recording",
+      "entity-1",
+      serializer,
+      ComponentDescriptor.descriptorFor(classOf[EventContextRecordingEntity], serializer),
+      classOf[java.util.List[String]],
+      new RegionInfo(""),
+      Seq.empty,
+      _ => new EventContextRecordingEntity)
+
+  private def envelope(sequenceNumber: Long, value: String, metadata: (String, String)*) =
+    new SpiEventSourcedEntity.EventEnvelope(
+      sequenceNumber,
+      serializer.toBytes(new EventContextRecordingEntity.Recorded(value)),
+      new SpiMetadata(metadata.map { case (k, v) => new SpiMetadataEntry(k, v) }))
+
+  "EventSourcedEntityImpl" should {
+
+    "give each replayed event its own sequence number and metadata" in {
+      val impl = entityImpl()
+      val journal = Seq(
+        envelope(1L, "a", "key" -> "first"),
+        envelope(2L, "b"),
+        envelope(3L, "c", "key" -> "third"),
+        envelope(4L, "d"))
+
+      val state = journal.foldLeft(impl.emptyState)(impl.handleEvent)
+
+      state.asInstanceOf[java.util.List[String]].asScala shouldBe Seq("a@1:first", "b@2:-", "c@3:third", "d@4:-")
+    }
+
+    "not leak the metadata of a replayed event to the next one" in {
+      val impl = entityImpl()
+      // the metadata of the first event is materialized by the event handler before the second is applied
+      val afterFirst = impl.handleEvent(impl.emptyState, envelope(7L, "a", "key" -> "only-first"))
+      val afterSecond = impl.handleEvent(afterFirst, envelope(8L, "b"))
+
+      afterSecond.asInstanceOf[java.util.List[String]].asScala shouldBe Seq("a@7:only-first", "b@8:-")
+    }
+  }
+}
@@ -8,6 +8,7 @@ import java.net.URI
 import java.util
 import java.util.Base64
 import java.util.Optional
+import java.util.concurrent.atomic.AtomicInteger
 
 import scala.beans.BeanProperty
 
@@ -83,6 +84,21 @@ object JsonSerializationSpec {
   @Migration(classOf[SimpleClassUpdatedMigration])
   final case class SimpleClassUpdated(str: String, in: Int, newField: Int)
 
+  object CountingMigration {
+    val instances = new AtomicInteger()
+  }
+
+  class CountingMigration extends JsonMigration {
+    CountingMigration.instances.incrementAndGet()
+    override def currentVersion(): Int = 1
+    override def transform(fromVersion: Int, jsonNode: JsonNode): JsonNode =
+      jsonNode.asInstanceOf[ObjectNode].set("in", IntNode.valueOf(0))
+  }
+
+  @JsonCreator
+  @Migration(classOf[CountingMigration])
+  final case class CountingMigrated(str: String, in: Int)
+
   object AnnotatedWithTypeName {
 
     sealed trait Animal
@@ -190,6 +206,17 @@ class JsonSerializationSpec extends AnyWordSpec with Matchers {
       decoded shouldBe new DummyClass("123", 321, Optional.of("value"))
     }
 
+    "create the migration once per class" in {
+      val bytesPayload = new BytesPayload(ByteString.fromString("""{"str":"foo"}"""), jsonContentTypeWith("migrated"))
+      // a serializer of its own, so that the migration can't have been created by another test
+      val freshSerializer = new JsonSerializer
+      val instancesBefore = CountingMigration.instances.get()
+      (1 to 3).foreach { _ =>
+        freshSerializer.fromBytes(classOf[CountingMigrated], bytesPayload) shouldBe CountingMigrated("foo", 0)
+      }
+      CountingMigration.instances.get() - instancesBefore shouldBe 1
+    }
+
     "serialize and deserialize Akka Done class" in {
       val bytesPayload = serializer.toBytes(Done.done())
       bytesPayload.contentType shouldBe jsonContentTypeWith(Done.getClass.getName)
@@ -4,20 +4,28 @@
 
 package akka.javasdk.impl.view
 
+import scala.concurrent.Await
+import scala.concurrent.duration._
 import scala.reflect.ClassTag
 
 import akka.dispatch.ExecutionContexts
 import akka.javasdk.impl.serialization.Serializer
+import akka.javasdk.testmodels.eventsourcedentity.EmployeeEvent
 import akka.javasdk.testmodels.view.ViewTestModels
 import akka.runtime.sdk.spi.ConsumerSource
 import akka.runtime.sdk.spi.Principal
 import akka.runtime.sdk.spi.RegionInfo
 import akka.runtime.sdk.spi.ServiceNamePattern
+import akka.runtime.sdk.spi.SpiMetadata
 import akka.runtime.sdk.spi.SpiSchema.SpiClass
 import akka.runtime.sdk.spi.SpiSchema.SpiInteger
 import akka.runtime.sdk.spi.SpiSchema.SpiList
 import akka.runtime.sdk.spi.SpiSchema.SpiString
 import akka.runtime.sdk.spi.SpiSchema.SpiTimestamp
+import akka.runtime.sdk.spi.SpiTableUpdateHandler
+import akka.runtime.sdk.spi.SpiTableUpdateHandler.SpiTableUpdateEffect
+import akka.runtime.sdk.spi.SpiTableUpdateHandler.SpiTableUpdateEnvelope
+import akka.runtime.sdk.spi.SpiTableUpdateHandler.UpdateRow
 import akka.runtime.sdk.spi.ViewDescriptor
 import org.scalatest.matchers.should.Matchers
 import org.scalatest.wordspec.AnyWordSpec
@@ -230,6 +238,28 @@ class ViewDescriptorFactorySpec extends AnyWordSpec with Matchers {
       }
     }
 
+    "dispatch each subtype of a sealed event interface to its handler" in {
+      assertDescriptor[SubscribeToSealedEventSourcedEvents] { desc =>
+        val updateHandler = desc.tables.find(_.tableName == "employees").get.updateHandler.get
+
+        def handle(event: AnyRef): SpiTableUpdateEffect =
+          Await.result(
+            updateHandler.handle(
+              new SpiTableUpdateEnvelope(
+                existingTableRow = None,
+                eventPayload = serializer.toBytes(event),
+                metadata = SpiMetadata.empty,
+                originRegion = None)),
+            3.seconds)
+
+        // twice, to also cover the cached handler for the event class
+        for (_ <- 1 to 2) {
+          handle(new EmployeeEvent.EmployeeCreated("John", "Doe", "john@doe.com")) shouldBe a[UpdateRow]
+          handle(new EmployeeEvent.EmployeeEmailUpdated("john@doe.com")) shouldBe SpiTableUpdateHandler.IgnoreUpdate
+        }
+      }
+    }
+
     "create a descriptor for a View with multiple methods to handle different events" in {
       assertDescriptor[SubscribeOnTypeToEventSourcedEvents] { desc =>
         val table = desc.tables.find(_.tableName == "employees").get
@@ -154,6 +154,11 @@ object Dependencies {
       scalaTest % Test,
       akkaDependency("akka-actor-testkit-typed") % Test)
 
+  val benchmarks =
+    deps ++= Seq(
+      // provided for the SDK, needed to run the benchmarks standalone
+      akkaDependency("akka-actor-typed"))
+
   lazy val excludeTheseDependencies: Seq[ExclusionRule] = Seq(
     // exclusion rules can be added here
   )